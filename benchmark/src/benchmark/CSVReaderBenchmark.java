@@ -0,0 +1,104 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import model.CSVReader;
+import model.Recording;
+import model.Shoe;
+import model.Shoe.Side;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmark of the loading of a recording by CSVReader.loadFile.<br>
+ * The recording lasts some hours at Datasets.SAMPLE_RATE rows per second.
+ * Its format is a loaded CSV file, a memory-mapped CSV file, a binary
+ * recording file or a compressed recording file. load only opens the file,
+ * scan also reads the CoP of all the rows (so the memory-mapped files are
+ * parsed or decoded).
+ * @author Loïc David
+ * @see CSVReader
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CSVReaderBenchmark {
+
+    /**
+     * Duration of the recording (in hours).
+     */
+    @Param({"1"})
+    public double hours;
+    /**
+     * Format of the recording.
+     */
+    @Param({"csv", "mapped", "vsb", "vsz"})
+    public String format;
+    private CSVReader reader;
+    private String path;
+
+    /**
+     * Create the recording if needed.
+     * @throws Exception If the settings or the recording cannot be read.
+     */
+    @Setup
+    public void setup() throws Exception {
+        Shoe shoe = new Shoe(Side.LEFT);
+        reader = shoe.getCsvReader();
+        String extension = format.equals("csv") || format.equals("mapped") ? ".csv" : "." + format;
+        path = Datasets.recording(shoe, hours, extension);
+    }
+
+    /**
+     * Load the recording.
+     * @throws Exception If the recording cannot be read.
+     */
+    private void loadFile() throws Exception {
+        if (format.equals("csv") || format.equals("mapped")) {
+            reader.loadFile(path, format.equals("mapped"));
+        }
+        else {
+            reader.loadFile(path);
+        }
+    }
+
+    /**
+     * Load the recording.
+     * @return The number of rows.
+     * @throws Exception If the recording cannot be read.
+     */
+    @Benchmark
+    public int load() throws Exception {
+        loadFile();
+        return reader.getDataSize();
+    }
+
+    /**
+     * Load the recording and read the CoP of all the rows.
+     * @return The sum of the CoPs.
+     * @throws Exception If the recording cannot be read.
+     */
+    @Benchmark
+    public double scan() throws Exception {
+        loadFile();
+        Recording data = reader.getData();
+        double sum = 0;
+        for (int i = 0; i < data.size(); i++) {
+            sum += data.getXcop(i) + data.getYcop(i);
+        }
+        return sum;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import model.PressureCalibration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmark of the conversion of the values of the sensors into pressures,
+ * for one row (all the sensors).<br>
+ * table uses the PressureCalibration (lookup tables, or the curves for the
+ * values which are not integers), polynomial the formula used before the
+ * PressureCalibration.
+ * @author Loïc David
+ * @see PressureCalibration
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalibrationBenchmark {
+
+    private static final int NB_ROWS = 4096;
+    private static final int NB_SENSORS = 16;
+
+    /**
+     * true for integer values (as sent by the shoe), false for values
+     * which need the curves.
+     */
+    @Param({"true", "false"})
+    public boolean integer;
+    private PressureCalibration calibration;
+    private final double[] values = new double[NB_ROWS * NB_SENSORS];
+    private final double[] pressures = new double[NB_SENSORS];
+    private int row = 0;
+
+    /**
+     * Load the calibration and create random values (0 to 1023).
+     * @throws Exception If the calibration cannot be read.
+     */
+    @Setup
+    public void setup() throws Exception {
+        calibration = new PressureCalibration(NB_SENSORS);
+        Random random = new Random(0);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = integer ? random.nextInt(1024) : random.nextDouble() * 1023;
+        }
+    }
+
+    /**
+     * Convert a row with the PressureCalibration.
+     * @return The pressures.
+     */
+    @Benchmark
+    public double[] table() {
+        int offset = nextRow();
+        for (int i = 0; i < NB_SENSORS; i++) {
+            pressures[i] = calibration.toPressure(i, values[offset + i]);
+        }
+        return pressures;
+    }
+
+    /**
+     * Convert a row with the formula used before the
+     * PressureCalibration.
+     * @return The pressures.
+     */
+    @Benchmark
+    public double[] polynomial() {
+        int offset = nextRow();
+        for (int i = 0; i < NB_SENSORS; i++) {
+            double sensor = values[offset + i];
+            double pressure;
+            if (sensor > 662) {
+                pressure = 0.000274 * Math.pow(sensor, 3) - 0.6555 * Math.pow(sensor, 2) + 524.6 * sensor - 139500;
+            }
+            else if (sensor > 100) {
+                pressure = 0.0002479 * Math.pow(sensor, 2) + 0.1935 * sensor + 132;
+            }
+            else {
+                pressure = 0;
+            }
+            pressures[i] = pressure;
+        }
+        return pressures;
+    }
+
+    /**
+     * Offset of the next row.
+     * @return The offset.
+     */
+    private int nextRow() {
+        row = row + 1 == NB_ROWS ? 0 : row + 1;
+        return row * NB_SENSORS;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import model.CoPEngine;
+import model.PressureCalibration;
+import model.Sensor;
+import model.Shoe;
+import model.Shoe.Side;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmark of the calculation of the CoP, for one row.<br>
+ * engine uses the CoPEngine of the shoe, loop the calculation done before
+ * the CoPEngine (pressures set in the properties of the sensors, then two
+ * loops on the list of sensors reading the properties).
+ * @author Loïc David
+ * @see CoPEngine
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoPBenchmark {
+
+    private static final int NB_ROWS = 4096;
+    private ArrayList<Sensor> sensors;
+    private CoPEngine engine;
+    private double[] pressures;
+    private final double[] cop = new double[2];
+    private int nbSensors;
+    private int row = 0;
+
+    /**
+     * Load the shoe and compute the pressures of random values (0 to 1023).
+     * @throws Exception If the settings cannot be read.
+     */
+    @Setup
+    public void setup() throws Exception {
+        Shoe shoe = new Shoe(Side.LEFT);
+        sensors = shoe.getSensors();
+        engine = shoe.getCoPEngine();
+        nbSensors = sensors.size();
+        PressureCalibration calibration = new PressureCalibration(nbSensors);
+        pressures = new double[NB_ROWS * nbSensors];
+        Random random = new Random(0);
+        for (int i = 0; i < pressures.length; i++) {
+            pressures[i] = calibration.toPressure(i % nbSensors, random.nextInt(1024));
+        }
+    }
+
+    /**
+     * CoP computed by the CoPEngine.
+     * @return The CoP.
+     */
+    @Benchmark
+    public double[] engine() {
+        engine.compute(pressures, nextRow(), cop);
+        return cop;
+    }
+
+    /**
+     * CoP computed as before the CoPEngine: the pressures of the row are set
+     * in the properties of the sensors, then read back from them in two
+     * loops on the list of sensors.
+     * @return The CoP.
+     */
+    @Benchmark
+    public double[] loop() {
+        int offset = nextRow();
+        for (int i = 0; i < nbSensors; i++) {
+            sensors.get(i).pressureProperty().setValue(pressures[offset + i]);
+        }
+        double sumP = 0;
+        double sumXP = 0;
+        double sumYP = 0;
+        for (Sensor s : sensors) {
+            if (s.getGroup() == 1) {
+                sumP += s.pressureProperty().getValue();
+                sumXP += s.pressureProperty().getValue() * s.getX();
+                sumYP += s.pressureProperty().getValue() * s.getY();
+            }
+        }
+        double meanP1 = sumP / 12;
+        double Xcop1 = meanP1 == 0 ? 0 : sumXP / sumP;
+        double Ycop1 = meanP1 == 0 ? 0 : sumYP / sumP;
+        sumP = 0;
+        sumXP = 0;
+        sumYP = 0;
+        for (Sensor s : sensors) {
+            if (s.getGroup() != 1) {
+                sumP += s.pressureProperty().getValue();
+                sumXP += s.pressureProperty().getValue() * s.getX();
+                sumYP += s.pressureProperty().getValue() * s.getY();
+            }
+        }
+        double meanP2 = sumP / 4;
+        double Xcop2 = meanP2 == 0 ? 0 : sumXP / sumP;
+        double Ycop2 = meanP2 == 0 ? 0 : sumYP / sumP;
+        if (meanP1 == 0 && meanP2 == 0) {
+            cop[0] = CoPEngine.NO_PRESSURE;
+            cop[1] = CoPEngine.NO_PRESSURE;
+        }
+        else {
+            cop[0] = (meanP1 * Xcop1 + meanP2 * Xcop2) / (meanP1 + meanP2);
+            cop[1] = (meanP1 * Ycop1 + meanP2 * Ycop2) / (meanP1 + meanP2);
+        }
+        return cop;
+    }
+
+    /**
+     * Offset of the next row.
+     * @return The offset.
+     */
+    private int nextRow() {
+        row = row + 1 == NB_ROWS ? 0 : row + 1;
+        return row * nbSensors;
+    }
+
+}
\ No newline at end of file
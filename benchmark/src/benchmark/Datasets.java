@@ -0,0 +1,184 @@
+package benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Locale;
+import exception.CSVFileException;
+import model.BinaryRecording;
+import model.CompressedRecording;
+import model.Shoe;
+
+
+/**
+ * Datasets used by the benchmarks.<br>
+ * The recordings are built from the save file of the shoe
+ * (ressources/savedata[left or right].csv): its rows are repeated, with a
+ * new time, until the wanted duration is reached. They are written in the
+ * temporary directory and reused by the next runs. Each file is written
+ * under a temporary name and renamed once complete, so an interrupted run
+ * never leaves a truncated dataset.
+ * @author Loïc David
+ */
+public final class Datasets {
+
+    /**
+     * Number of rows per second of the recordings.
+     */
+    public static final double SAMPLE_RATE = 100;
+
+    /**
+     * This class only contains static methods.
+     */
+    private Datasets() {
+    }
+
+    /**
+     * Get a recording of the shoe, created if needed.
+     * @param shoe The shoe.
+     * @param hours Duration of the recording (in hours).
+     * @param extension Format of the recording (".csv", ".vsb" or ".vsz").
+     * @return The path of the recording.
+     * @throws IOException The recording cannot be created.
+     */
+    public static String recording(Shoe shoe, double hours, String extension) throws IOException {
+        String name = "vibroshoe-" + shoe.getSide().toString() + "-" + hours + "h";
+        File csv = new File(System.getProperty("java.io.tmpdir"), name + ".csv");
+        if (!csv.exists()) {
+            File partial = partial(csv);
+            writeCSV(shoe, partial, (int)(hours * 3600 * SAMPLE_RATE));
+            complete(partial, csv);
+        }
+        if (extension.equals(".csv")) {
+            return csv.getPath();
+        }
+        File file = new File(System.getProperty("java.io.tmpdir"), name + extension);
+        if (!file.exists()) {
+            File partial = partial(file);
+            try {
+                if (extension.equals(".vsb")) {
+                    BinaryRecording.write(shoe.getCsvReader().readFile(csv.getPath()), shoe, partial.getPath());
+                }
+                else {
+                    CompressedRecording.write(shoe.getCsvReader().readFile(csv.getPath()), shoe, partial.getPath());
+                }
+            } catch (CSVFileException e) {
+                throw new IOException(e);
+            }
+            complete(partial, file);
+        }
+        return file.getPath();
+    }
+
+    /**
+     * Get the temporary file a dataset is written in before being complete.
+     * A temporary file left by an interrupted run is deleted.
+     * @param file The dataset.
+     * @return The temporary file.
+     * @throws IOException The old temporary file cannot be deleted.
+     */
+    private static File partial(File file) throws IOException {
+        File partial = new File(file.getPath() + ".part");
+        Files.deleteIfExists(partial.toPath());
+        return partial;
+    }
+
+    /**
+     * Give its final name to a complete dataset.
+     * @param partial The temporary file of the dataset.
+     * @param file The dataset.
+     * @throws IOException The file cannot be renamed.
+     */
+    private static void complete(File partial, File file) throws IOException {
+        Files.move(partial.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Get the rows of the save file of the shoe (without the header and the
+     * time).
+     * @param shoe The shoe.
+     * @return The rows, starting with ';'.
+     * @throws IOException The save file cannot be read or is empty.
+     */
+    public static ArrayList<String> rows(Shoe shoe) throws IOException {
+        ArrayList<String> rows = new ArrayList<>();
+        FileInputStream flux = new FileInputStream("././ressources/savedata" + shoe.getSide().toString() + ".csv");
+        InputStreamReader inputStreamReader = new InputStreamReader(flux, StandardCharsets.US_ASCII);
+        BufferedReader buff = new BufferedReader(inputStreamReader);
+        String line = buff.readLine();
+        while ((line = buff.readLine()) != null) {
+            int separator = line.indexOf(';');
+            if (separator > 0) {
+                rows.add(line.substring(separator));
+            }
+        }
+        buff.close();
+        inputStreamReader.close();
+        flux.close();
+        if (rows.isEmpty()) {
+            throw new IOException("Empty save file");
+        }
+        return rows;
+    }
+
+    /**
+     * Get the lines of the save file of the shoe, as sent by the shoe.
+     * @param shoe The shoe.
+     * @param dataType 0 for "All data", 1 for "Only sensors".
+     * @return The lines (ASCII, without the end of line).
+     * @throws IOException The save file cannot be read or is empty.
+     */
+    public static byte[][] lines(Shoe shoe, int dataType) throws IOException {
+        ArrayList<String> rows = rows(shoe);
+        int nbSensors = shoe.getSensors().size();
+        byte[][] lines = new byte[rows.size()][];
+        for (int i = 0; i < rows.size(); i++) {
+            String row = rows.get(i);
+            if (dataType == 1) {
+                // Keep only the values of the sensors.
+                int end = 0;
+                for (int j = 0; j < nbSensors && end >= 0; j++) {
+                    end = row.indexOf(';', end + 1);
+                }
+                if (end > 0) {
+                    row = row.substring(0, end);
+                }
+            }
+            lines[i] = (i / SAMPLE_RATE + row).getBytes(StandardCharsets.US_ASCII);
+        }
+        return lines;
+    }
+
+    /**
+     * Write a CSV recording by repeating the rows of the save file.
+     * @param shoe The shoe.
+     * @param file The CSV file.
+     * @param nbRows Number of rows.
+     * @throws IOException The file cannot be written.
+     */
+    private static void writeCSV(Shoe shoe, File file, int nbRows) throws IOException {
+        ArrayList<String> rows = rows(shoe);
+        BufferedReader buff = new BufferedReader(new InputStreamReader(new FileInputStream("././ressources/savedata" + shoe.getSide().toString() + ".csv"), StandardCharsets.US_ASCII));
+        String header = buff.readLine();
+        buff.close();
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.US_ASCII), 1 << 16);
+        writer.write(header);
+        writer.write('\n');
+        for (int i = 0; i < nbRows; i++) {
+            writer.write(String.format(Locale.ROOT, "%.2f", i / SAMPLE_RATE));
+            writer.write(rows.get(i % rows.size()));
+            writer.write('\n');
+        }
+        writer.close();
+    }
+
+}
\ No newline at end of file
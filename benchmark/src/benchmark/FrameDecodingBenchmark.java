@@ -0,0 +1,112 @@
+package benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import model.Frame;
+import model.FrameParser;
+import model.FrameProcessor;
+import model.MotorRules;
+import model.PressureCalibration;
+import model.Shoe;
+import model.Shoe.Side;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmark of the decoding of the lines read from the serial port (as done
+ * by SerialReader.sendData).<br>
+ * The lines are the rows of the save file of the shoe. parse is the parsing
+ * only, split the parsing done before FrameParser (String.split and
+ * Double.parseDouble), process the whole conversion into a Frame.
+ * @author Loïc David
+ * @see FrameParser
+ * @see FrameProcessor
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameDecodingBenchmark {
+
+    /**
+     * 0 for "All data", 1 for "Only sensors".
+     */
+    @Param({"0", "1"})
+    public int dataType;
+    private byte[][] lines;
+    private String[] strings;
+    private FrameProcessor processor;
+    private final double[] values = new double[256];
+    private int index = 0;
+
+    /**
+     * Load the lines and create the FrameProcessor.
+     * @throws Exception If the settings or the save file cannot be read.
+     */
+    @Setup
+    public void setup() throws Exception {
+        Shoe shoe = new Shoe(Side.LEFT);
+        lines = Datasets.lines(shoe, dataType);
+        strings = new String[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            strings[i] = new String(lines[i], StandardCharsets.US_ASCII);
+        }
+        processor = new FrameProcessor(shoe, new PressureCalibration(shoe.getSensors().size()), new MotorRules(shoe));
+    }
+
+    /**
+     * Index of the next line.
+     * @return The index.
+     */
+    private int next() {
+        index = index + 1 == lines.length ? 0 : index + 1;
+        return index;
+    }
+
+    /**
+     * Parse a line with the FrameParser.
+     * @return The number of values.
+     */
+    @Benchmark
+    public int parse() {
+        byte[] line = lines[next()];
+        return FrameParser.parse(line, 0, line.length, values);
+    }
+
+    /**
+     * Parse a line with String.split and Double.parseDouble.
+     * @return The sum of the values.
+     */
+    @Benchmark
+    public double split() {
+        String[] data = strings[next()].split(";");
+        double sum = 0;
+        for (String value : data) {
+            sum += Double.parseDouble(value);
+        }
+        return sum;
+    }
+
+    /**
+     * Convert a line into a Frame.
+     * @return The Frame.
+     */
+    @Benchmark
+    public Frame process() {
+        byte[] line = lines[next()];
+        return processor.process(line, line.length, dataType, System.nanoTime());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import javafx.beans.property.Property;
+import javafx.beans.value.ChangeListener;
+import model.Motor;
+import model.Sensor;
+import model.Shoe;
+import model.Shoe.Side;
+import model.TimeController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmark of TimeController.update(): the values of a row of both CSV
+ * files are given to the properties of the sensors, the motors and the CoPs.
+ * <br>
+ * The views are replaced by listeners doing nothing, so only the fan-out
+ * of the properties is measured.
+ * @author Loïc David
+ * @see TimeController
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpdateBenchmark {
+
+    /**
+     * Duration of the recordings (in hours).
+     */
+    @Param({"0.1"})
+    public double hours;
+    /**
+     * Number of listeners on each property (views).
+     */
+    @Param({"0", "1", "3"})
+    public int listeners;
+    private TimeController timeController;
+    private int size;
+    private int index = 0;
+    private long changes = 0;
+
+    /**
+     * Load the recordings of both shoes and add the listeners.
+     * @throws Exception If the settings or the recordings cannot be read.
+     */
+    @Setup
+    public void setup() throws Exception {
+        Shoe leftShoe = new Shoe(Side.LEFT);
+        Shoe rightShoe = new Shoe(Side.RIGHT);
+        timeController = new TimeController(leftShoe, rightShoe);
+        leftShoe.getCsvReader().loadFile(Datasets.recording(leftShoe, hours, ".csv"));
+        rightShoe.getCsvReader().loadFile(Datasets.recording(rightShoe, hours, ".csv"));
+        size = Math.min(leftShoe.getCsvReader().getDataSize(), rightShoe.getCsvReader().getDataSize());
+        for (Shoe shoe : new Shoe[] {leftShoe, rightShoe}) {
+            for (Sensor sensor : shoe.getSensors()) {
+                listen(sensor.valueProperty());
+                listen(sensor.pressureProperty());
+            }
+            for (Motor motor : shoe.getMotors()) {
+                listen(motor.valueProperty());
+            }
+            listen(shoe.getCop().xProperty());
+            listen(shoe.getCop().yProperty());
+            listen(shoe.frameProperty());
+        }
+        listen(timeController.timeProperty());
+    }
+
+    /**
+     * Add the listeners to a property.
+     * @param property The property.
+     */
+    private void listen(Property<Number> property) {
+        ChangeListener<Number> listener = (observable, oldValue, newValue) -> changes++;
+        for (int i = 0; i < listeners; i++) {
+            property.addListener(listener);
+        }
+    }
+
+    /**
+     * Go to the next row and update the properties.
+     * @return The number of changes seen by the listeners.
+     */
+    @Benchmark
+    public long update() {
+        index = index + 1 == size ? 0 : index + 1;
+        timeController.indexTimeProperty().setValue(index);
+        timeController.update();
+        return changes;
+    }
+
+}
\ No newline at end of file
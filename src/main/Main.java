@@ -8,10 +8,12 @@ import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
 import model.MenuController;
+import model.SerialEventLoop;
 import model.Shoe;
 import model.Shoe.Side;
 import model.TimeController;
 import view.mainwindow.MainView;
+import view.mainwindow.shoe.ColorMap;
 import view.otherwindow.ErrorWindow;
 
 
@@ -45,6 +47,7 @@ public class Main extends Application{
             MenuController menuController = new MenuController(timeController, shoeModelLeft, shoeModelRight);
 
             // View.
+            ColorMap.load();
             MainView mainView = new MainView(menuController, timeController, shoeModelLeft, shoeModelRight);
 
             // Initialize window.
@@ -102,6 +105,7 @@ public class Main extends Application{
         shoeModelRight.getSerialReader().stopRead();
         shoeModelLeft.getSerialReader().closePort();
         shoeModelRight.getSerialReader().closePort();
+        SerialEventLoop.getInstance().shutdown();
         super.stop();
     }
     
@@ -0,0 +1,71 @@
+package main;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+import model.SerialEventLoop;
+import model.SerialSimulator;
+import model.SerialSimulator.Result;
+import model.Shoe;
+import model.Shoe.Side;
+
+
+/**
+ * Load test of the serial reading, without any shoe.<br>
+ * A SerialSimulator sends lines to the SerialReader of the left shoe at
+ * increasing speeds, until lines are lost. The Results are printed on the
+ * standard output.<br>
+ * Arguments: source (a recording file, or "gait" for a synthetic gait at
+ * 100 lines per second during 60 seconds), first speed factor (default 1),
+ * maximum speed factor (default 1024), data type (0 for "All data", 1 for
+ * "Only sensors", default 1, always 1 for "gait").
+ * @author Loïc David
+ * @see SerialSimulator
+ */
+public class Simulator extends Application {
+
+    /**
+     * Method used to start the load test, in a thread (the runs wait for
+     * their end, which mustn't block the JavaFX thread).
+     * @param primaryStage The Window, not used.
+     * @throws Exception If something goes wrong.
+     */
+    @Override
+    public void start(Stage primaryStage) throws Exception {
+        String[] args = getParameters().getRaw().toArray(new String[0]);
+        String source = args.length > 0 ? args[0] : "gait";
+        double firstSpeed = args.length > 1 ? Double.parseDouble(args[1]) : 1;
+        double maxSpeed = args.length > 2 ? Double.parseDouble(args[2]) : 1024;
+        int dataType = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        Shoe shoe = new Shoe(Side.LEFT);
+        Thread test = new Thread(() -> {
+            try {
+                SerialSimulator simulator;
+                if (source.equals("gait")) {
+                    simulator = SerialSimulator.fromGait(shoe, 100, 60);
+                }
+                else {
+                    simulator = SerialSimulator.fromRecording(shoe, source, dataType);
+                }
+                System.out.println(simulator.getNbLines() + " lines from " + source);
+                for (Result result : simulator.findCeiling(firstSpeed, maxSpeed)) {
+                    System.out.println(result);
+                }
+            } catch (Exception e) {
+                System.out.println("Error: " + e.getMessage());
+            }
+            SerialEventLoop.getInstance().shutdown();
+            Platform.exit();
+        }, "Simulator");
+        test.start();
+    }
+
+    /**
+     * Launch the load test.
+     * @param args Source, first speed, maximum speed and data type.
+     */
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+}
\ No newline at end of file
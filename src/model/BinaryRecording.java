@@ -0,0 +1,194 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Recording read from a binary recording file (.vsb).<br>
+ * The file starts with a RecordingHeader, followed by the rows. Each row
+ * has a fixed width: the time (double) then all the other columns (float),
+ * in little-endian, in the same order as in the CSV files. A row is about
+ * five times smaller than in a CSV file and nothing has to be parsed: the
+ * file is memory-mapped and the values are read where they are.
+ * @author Loïc David
+ * @see RecordingHeader
+ * @see CSVReader
+ */
+public class BinaryRecording extends Recording {
+
+    /**
+     * Version of the format written by this class.
+     */
+    public static final byte VERSION = 1;
+    private static final int SEGMENT_SIZE = 1 << 30;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final RecordingHeader header;
+    private final MappedByteBuffer[] segments;
+    private final int rowLength;
+    private final int rowsPerSegment;
+    private final int size;
+
+    /**
+     * Create a new instance of BinaryRecording.<br>
+     * Map the file and read its header. If the file has been truncated, only
+     * its complete rows are used.
+     * @param filePath Binary file to read.
+     * @throws IOException The file cannot be mapped or is not a valid binary
+     * recording.
+     * @see BinaryRecording
+     */
+    public BinaryRecording(String filePath) throws IOException {
+        this(filePath, readHeader(filePath));
+    }
+
+    /**
+     * Create a new instance of BinaryRecording once its header is read.
+     * @see BinaryRecording
+     */
+    private BinaryRecording(String filePath, RecordingHeader header) throws IOException {
+        super(header.getNbSensors(), header.getNbMotors());
+        if (header.getVersion() != VERSION) {
+            throw new IOException("Not a binary recording");
+        }
+        this.header = header;
+        rowLength = getRowLength(header.getNbColumns());
+        rowsPerSegment = SEGMENT_SIZE / rowLength;
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long available = (channel.size() - header.getLength()) / rowLength;
+            long rows = Math.min(header.getNbRows(), Math.max(available, 0));
+            if (rows > Integer.MAX_VALUE) {
+                throw new IOException("Too many rows");
+            }
+            size = (int)rows;
+            segments = new MappedByteBuffer[(size + rowsPerSegment - 1) / rowsPerSegment];
+            for (int k = 0; k < segments.length; k++) {
+                long position = header.getLength() + (long)k * rowsPerSegment * rowLength;
+                int rowsInSegment = Math.min(rowsPerSegment, size - k * rowsPerSegment);
+                segments[k] = channel.map(FileChannel.MapMode.READ_ONLY, position, (long)rowsInSegment * rowLength);
+                segments[k].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+    }
+
+    /**
+     * Read the header of a binary recording file.
+     * @param filePath Binary file to read.
+     * @return The header.
+     * @throws IOException The file cannot be read or is not a valid binary
+     * recording.
+     */
+    private static RecordingHeader readHeader(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), BUFFER_SIZE));
+            return RecordingHeader.read(buffer);
+        }
+    }
+
+    /**
+     * Getter for the length of a row.
+     * @param nbColumns Number of columns of the rows.
+     * @return The length of a row (in bytes).
+     */
+    private static int getRowLength(int nbColumns) {
+        return 8 + 4 * (nbColumns - 1);
+    }
+
+    /**
+     * Write a recording in a binary recording file.
+     * @param data The recording to write.
+     * @param shoe The shoe the data come from.
+     * @param filePath Binary file to write.
+     * @throws IOException The file cannot be written or the recording doesn't
+     * match the shoe.
+     */
+    public static void write(Recording data, Shoe shoe, String filePath) throws IOException {
+        RecordingHeader header = new RecordingHeader(VERSION, shoe, RecordingHeader.estimateSampleRate(data), data.size());
+        int nbColumns = header.getNbColumns();
+        if (data.size() > 0 && data.getNbColumns() != nbColumns) {
+            throw new IOException("The recording doesn't match the shoe");
+        }
+        int rowLength = getRowLength(nbColumns);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, Math.max(header.getLength(), rowLength)));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            header.write(buffer);
+            for (int i = 0; i < data.size(); i++) {
+                if (buffer.remaining() < rowLength) {
+                    flush(buffer, channel);
+                }
+                buffer.putDouble(data.get(i, 0));
+                for (int j = 1; j < nbColumns; j++) {
+                    buffer.putFloat((float)data.get(i, j));
+                }
+            }
+            flush(buffer, channel);
+        }
+    }
+
+    /**
+     * Write the content of a buffer in a file.
+     * @param buffer The buffer.
+     * @param channel The channel of the file.
+     * @throws IOException The buffer cannot be written.
+     */
+    private static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public double get(int i, int column) {
+        if (i >= size || i < 0) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        MappedByteBuffer segment = segments[i / rowsPerSegment];
+        int position = (i % rowsPerSegment) * rowLength;
+        if (column == 0) {
+            return segment.getDouble(position);
+        }
+        return segment.getFloat(position + 4 + 4 * column);
+    }
+
+    @Override
+    public void getRow(int i, double[] row) {
+        if (i >= size || i < 0) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        MappedByteBuffer segment = segments[i / rowsPerSegment];
+        int position = (i % rowsPerSegment) * rowLength;
+        row[0] = segment.getDouble(position);
+        int nbColumns = header.getNbColumns();
+        for (int column = 1; column < nbColumns; column++) {
+            row[column] = segment.getFloat(position + 4 + 4 * column);
+        }
+    }
+
+    @Override
+    public int getNbColumns() {
+        return header.getNbColumns();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the header of the file.
+     * @return The header.
+     */
+    public RecordingHeader getHeader() {
+        return header;
+    }
+
+}
\ No newline at end of file
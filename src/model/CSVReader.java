@@ -1,24 +1,42 @@
 package model;
 
 import exception.CSVFileException;
-import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 
 /**
  * Class used to read the CSV files.<br>
- * This class reads the data from the csv file and stores them.
- * Several methods are implemented to get the stored data.
+ * This class reads the data from the csv file and stores them in a
+ * ColumnStore. Large files are not loaded but memory-mapped, their rows are
+ * parsed only when they are needed. The binary and compressed recording
+ * files are detected and memory-mapped too. Several methods are implemented
+ * to get the stored data.
  * @author Loïc David
+ * @see ColumnStore
+ * @see MappedCSVRecording
+ * @see BinaryRecording
+ * @see CompressedRecording
  */
 public class CSVReader {
     
+    /**
+     * Size (in bytes) from which the CSV files are memory-mapped instead of
+     * being loaded.
+     */
+    public static final long LAZY_THRESHOLD = 32 * 1024 * 1024;
+    private static final int MAX_LINE_LENGTH = 1 << 16;
+    private static final int MAX_VALUES = 1024;
+    private static final byte[] END_OF_LINE = {'\n'};
+    
     private InputStream flux;
-    private final ArrayList<ArrayList<Double>> data = new ArrayList<>();
+    private Recording data = new ColumnStore(1, 0, 0);
     private final Shoe shoe;
     
     /**
@@ -31,36 +49,174 @@ public class CSVReader {
     }
 
     /**
-     * Read the CSV file and store the data.
+     * Read the CSV file and store the data.<br>
+     * The binary and compressed recording files are memory-mapped. The CSV
+     * files bigger than LAZY_THRESHOLD are memory-mapped, the other ones are
+     * loaded.
      * @param filePath CSV file to read.
      * @throws CSVFileException If there is any problem to load the
      * file or to collect the data.
      */
     public void loadFile(String filePath) throws CSVFileException {
         resetData();
+        data = readFile(filePath);
+    }
+    
+    /**
+     * Read the CSV file and store the data.
+     * @param filePath CSV file to read.
+     * @param lazy If true, the file is memory-mapped and its rows are parsed
+     * when they are needed, else the whole file is loaded.
+     * @throws CSVFileException If there is any problem to load the
+     * file or to collect the data.
+     */
+    public void loadFile(String filePath, boolean lazy) throws CSVFileException {
+        resetData();
+        data = readFile(filePath, lazy);
+    }
+    
+    /**
+     * Read a recording file (CSV or binary) without storing it.<br>
+     * The binary and compressed recording files are memory-mapped, and must
+     * have been recorded with a shoe of the same side, sensors and motors
+     * as this one. The CSV files bigger than LAZY_THRESHOLD are
+     * memory-mapped, the other ones are loaded.
+     * @param filePath File to read.
+     * @return The data of the file.
+     * @throws CSVFileException If there is any problem to load the
+     * file or to collect the data.
+     */
+    public Recording readFile(String filePath) throws CSVFileException {
+        int version = getBinaryVersion(filePath);
+        if (version != -1) {
+            try {
+                Recording recording;
+                RecordingHeader header;
+                if (version == CompressedRecording.VERSION) {
+                    CompressedRecording compressed = new CompressedRecording(filePath);
+                    header = compressed.getHeader();
+                    recording = compressed;
+                }
+                else {
+                    BinaryRecording binary = new BinaryRecording(filePath);
+                    header = binary.getHeader();
+                    recording = binary;
+                }
+                // The file has been recorded with another shoe.
+                if (header.getSide() != shoe.getSide() || recording.getNbSensors() != shoe.getSensors().size()
+                        || recording.getNbMotors() != shoe.getMotors().size()) {
+                    recording.close();
+                    throw new CSVFileException();
+                }
+                return recording;
+            } catch (IOException ex) {
+                throw new CSVFileException();
+            }
+        }
+        return readFile(filePath, new File(filePath).length() > LAZY_THRESHOLD);
+    }
+    
+    /**
+     * Read a CSV file without storing it.
+     * @param filePath CSV file to read.
+     * @param lazy If true, the file is memory-mapped and its rows are parsed
+     * when they are needed, else the whole file is loaded.
+     * @return The data of the file.
+     * @throws CSVFileException If there is any problem to load the
+     * file or to collect the data.
+     */
+    public Recording readFile(String filePath, boolean lazy) throws CSVFileException {
+        if (lazy) {
+            try {
+                return new MappedCSVRecording(filePath, shoe.getSensors().size(), shoe.getMotors().size());
+            } catch (IOException | NumberFormatException ex) {
+                throw new CSVFileException();
+            }
+        }
+        return loadColumns(filePath);
+    }
+    
+    /**
+     * Getter for the version of the format of a binary or compressed
+     * recording file (read in the beginning of the RecordingHeader).
+     * @param filePath File to check.
+     * @return The version, or -1 if the file is not a binary or compressed
+     * recording file.
+     */
+    private static int getBinaryVersion(String filePath) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4);
+            channel.read(buffer);
+            buffer.flip();
+            return RecordingHeader.getVersion(buffer);
+        } catch (IOException | RuntimeException ex) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Read the whole CSV file and store the data in a ColumnStore.
+     * @param filePath CSV file to read.
+     * @return The ColumnStore containing the data.
+     * @throws CSVFileException If there is any problem to load the
+     * file or to collect the data.
+     */
+    private Recording loadColumns(String filePath) throws CSVFileException {
+        ColumnLoader loader = new ColumnLoader();
+        LineFramer framer = new LineFramer(MAX_LINE_LENGTH, loader);
+        byte[] buffer = new byte[1 << 16];
+        int len;
         try {
             flux = new FileInputStream(filePath);
-            BufferedReader buff;
-            try (InputStreamReader input = new InputStreamReader(flux)) {
-                buff = new BufferedReader(input);
-                String line;
-                buff.readLine();
-                while ((line = buff.readLine()) != null){
-                    if (line.length() > 0) {
-                        String[] elements = line.split(";");
-                        ArrayList<Double> lineArray = new ArrayList<>();
-                        for (String s : elements) {
-                            lineArray.add(Double.parseDouble(s));
-                        }
-                        data.add(lineArray);
-                    }
+            try {
+                while ((len = flux.read(buffer)) > -1) {
+                    framer.feed(buffer, 0, len);
                 }
+                // The last line may not end with '\n'.
+                framer.feed(END_OF_LINE, 0, 1);
+            } finally {
+                flux.close();
             }
-            buff.close();
-            flux.close();
         } catch (IOException | NumberFormatException ex) {
             throw new CSVFileException();
         }
+        if (framer.getDroppedLines() > 0) {
+            throw new CSVFileException();
+        }
+        if (loader.store == null) {
+            return new ColumnStore(1, 0, 0);
+        }
+        loader.store.trim();
+        return loader.store;
+    }
+    
+    /**
+     * Receive the lines of the CSV file, parse them and store them in a
+     * ColumnStore. The first line (header) is skipped.
+     */
+    private class ColumnLoader implements LineFramer.FrameListener {
+        
+        private boolean header = true;
+        private final double[] values = new double[MAX_VALUES];
+        private ColumnStore store;
+        
+        @Override
+        public void onFrame(byte[] frame, int length) throws NumberFormatException {
+            if (header) {
+                header = false;
+            }
+            else if (length > 0) {
+                int count = FrameParser.parse(frame, 0, length, values);
+                if (store == null) {
+                    store = new ColumnStore(count, shoe.getSensors().size(), shoe.getMotors().size());
+                }
+                else if (count != store.getNbColumns()) {
+                    throw new NumberFormatException("Wrong number of values");
+                }
+                store.addRow(values);
+            }
+        }
+        
     }
     
     /**
@@ -68,7 +224,8 @@ public class CSVReader {
      */
     private void resetData() {
         flux = null;
-        data.clear();
+        data.close();
+        data = new ColumnStore(1, 0, 0);
     }
     
     /**
@@ -77,40 +234,40 @@ public class CSVReader {
      * @return The time the ith data.
      */
     public double getTime(int i) {
-        return data.get(i).get(0);
+        return data.getTime(i);
     }
     
     /**
      * Getter for the ith value of the jth sensor.
      * @param i Index of the data.
-     * @param j Index of the sensor.
+     * @param j Index of the sensor (starting at 1).
      * @return The ith value of the jth sensor.
      * @see Sensor
      */
     public double getSensorValue(int i, int j) {
-        return data.get(i).get(j);
+        return data.getSensorValue(i, j - 1);
     }
     
     /**
      * Getter for the ith pressure value of the jth sensor.
      * @param i Index of the data.
-     * @param j Index of the sensor.
+     * @param j Index of the sensor (starting at 1).
      * @return The ith pressure value of the jth sensor.
      * @see Sensor
      */
     public double getSensorPressure(int i, int j) {
-        return data.get(i).get(j + shoe.getSensors().size());
+        return data.getSensorPressure(i, j - 1);
     }
     
     /**
      * Getter for the ith value of the jth motor.
      * @param i Index of the data.
-     * @param j Index of the sensor.
+     * @param j Index of the motor (starting at 1).
      * @return The ith value of the jth motor.
      * @see Motor
      */
     public double getMotorValue(int i, int j) {
-        return data.get(i).get(j + 2 * shoe.getSensors().size());
+        return data.getMotorValue(i, j - 1);
     }
     
     /**
@@ -121,7 +278,7 @@ public class CSVReader {
      * @see CoP
      */
     public double getXcop(int i) {
-        return data.get(i).get(2 * shoe.getSensors().size() + shoe.getMotors().size() + 1);
+        return data.getXcop(i);
     }
     
     /**
@@ -132,7 +289,7 @@ public class CSVReader {
      * @see CoP
      */
     public double getYcop(int i) {
-        return data.get(i).get(2 * shoe.getSensors().size() + shoe.getMotors().size() + 2);
+        return data.getYcop(i);
     }
     
     /**
@@ -160,5 +317,14 @@ public class CSVReader {
     public int getDataSize() {
         return data.size();
     }
+    
+    /**
+     * Getter for the stored data.
+     * @return The Recording containing the data.
+     * @see Recording
+     */
+    public Recording getData() {
+        return data;
+    }
    
 }
\ No newline at end of file
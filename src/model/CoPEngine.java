@@ -0,0 +1,93 @@
+package model;
+
+import java.util.HashMap;
+import java.util.List;
+
+
+/**
+ * Computation of the CoP (Centre of Pressure) from the pressures of the
+ * sensors.<br>
+ * The sensors are divided in groups (front and back of the foot for
+ * example). The CoP is the barycentre of the mean pressures of the groups:
+ * each sensor is weighted by its pressure divided by the number of sensors of
+ * its group, so a group with few sensors counts as much as a group with many
+ * sensors.<br>
+ * The geometry of the sensors is copied in primitive arrays when the engine
+ * is created, with the weight of the group already applied to the
+ * coordinates. Thus, a CoP is computed in a single pass over the pressures,
+ * without any property or branch on the groups. An engine is immutable, so it
+ * can be used by any thread.
+ * @author Loïc David
+ * @see CoP
+ * @see Shoe
+ * @see FrameProcessor
+ */
+public class CoPEngine {
+
+    /**
+     * Coordinate of the CoP when there is no pressure.
+     */
+    public static final double NO_PRESSURE = -1000;
+    private final double[] weights;
+    private final double[] weightedX;
+    private final double[] weightedY;
+
+    /**
+     * Create a new instance of CoPEngine.
+     * @param sensors The sensors of the shoe.
+     * @see CoPEngine
+     */
+    public CoPEngine(List<Sensor> sensors) {
+        int nbSensors = sensors.size();
+        weights = new double[nbSensors];
+        weightedX = new double[nbSensors];
+        weightedY = new double[nbSensors];
+        HashMap<Integer, Integer> counts = new HashMap<>();
+        for (Sensor s : sensors) {
+            counts.merge(s.getGroup(), 1, Integer::sum);
+        }
+        for (int i = 0; i < nbSensors; i++) {
+            int count = counts.get(sensors.get(i).getGroup());
+            weights[i] = 1.0 / count;
+            weightedX[i] = sensors.get(i).getX() / count;
+            weightedY[i] = sensors.get(i).getY() / count;
+        }
+    }
+
+    /**
+     * Compute the CoP.
+     * @param pressures Array containing the pressures of the sensors.
+     * @param offset Index of the pressure of the first sensor in the array.
+     * @param cop Array receiving the X (index 0) and Y (index 1) coordinates
+     * of the CoP, or NO_PRESSURE if there is no pressure.
+     */
+    public void compute(double[] pressures, int offset, double[] cop) {
+        int nbSensors = Math.min(weights.length, pressures.length - offset);
+        double sumP = 0;
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < nbSensors; i++) {
+            double p = pressures[offset + i];
+            sumP += p * weights[i];
+            sumX += p * weightedX[i];
+            sumY += p * weightedY[i];
+        }
+        if (sumP == 0) {
+            cop[0] = NO_PRESSURE;
+            cop[1] = NO_PRESSURE;
+        }
+        else {
+            cop[0] = sumX / sumP;
+            cop[1] = sumY / sumP;
+        }
+    }
+
+    /**
+     * Getter for the number of sensors.
+     * @return The number of sensors.
+     */
+    public int getNbSensors() {
+        return weights.length;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,202 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import view.mainwindow.shoe.CoPTrailView;
+
+
+/**
+ * Trajectory of the CoP during the last seconds.<br>
+ * The positions of the CoP are stored with their time in a ring buffer of
+ * CAPACITY samples (arrays of primitive values), so the memory used doesn't
+ * grow during long readings: the samples older than the duration are dropped,
+ * and the oldest sample is overwritten when the buffer is full (the trail is
+ * then shorter than the duration).<br>
+ * The age of the samples is measured with the time of the data, so the trail
+ * covers the same duration at any speed of the playback, also backward. The
+ * trail is cleared when the CoP disappears then reappears (new contact of the
+ * shoe with the ground) and when the time jumps or changes of direction (move
+ * in the CSV data, new reading...), so two unrelated positions are never
+ * linked.<br>
+ * The buffer always contains the last samples added, so a view can follow it
+ * with only the number of samples added since its last update (getCount)
+ * and the number of samples kept (getSize).<br>
+ * The duration is read in the setting file (ressources/coptrail.txt, in
+ * seconds). The CoPTrail is used by the JavaFX thread only.
+ * @author Loïc David
+ * @see CoP
+ * @see Shoe#applyRow(double[], int, int)
+ * @see CoPTrailView
+ */
+public class CoPTrail {
+
+    /**
+     * Maximum number of samples of the trail.
+     */
+    public static final int CAPACITY = 1024;
+    private final double[] times = new double[CAPACITY];
+    private final double[] xs = new double[CAPACITY];
+    private final double[] ys = new double[CAPACITY];
+    private double duration;
+    private int first = 0;
+    private int size = 0;
+    private long count = 0;
+    private int direction = 0;
+    private boolean broken = false;
+
+    /**
+     * Create a new instance of CoPTrail.
+     * @throws IOException Issue to access the setting file.
+     * @throws NumberFormatException Issue to convert data from the setting
+     * file.
+     * @see CoPTrail
+     */
+    public CoPTrail() throws IOException, NumberFormatException {
+        initializeParameters();
+    }
+
+    /**
+     * Read the duration of the trail in the setting file
+     * (ressources/coptrail.txt).
+     * @throws IOException The duration cannot be loaded.
+     * @throws NumberFormatException Issue to convert data from the setting
+     * file.
+     */
+    public final void initializeParameters() throws IOException, NumberFormatException {
+        InputStream flux = new FileInputStream("././ressources/coptrail.txt");
+        InputStreamReader inputStreamReader = new InputStreamReader(flux);
+        BufferedReader buff = new BufferedReader(inputStreamReader);
+        double newDuration = Double.parseDouble(buff.readLine());
+        buff.close();
+        inputStreamReader.close();
+        flux.close();
+        if (!(newDuration > 0)) {
+            throw new NumberFormatException("Wrong CoP trail settings");
+        }
+        duration = newDuration;
+        clear();
+    }
+
+    /**
+     * Add a position of the CoP to the trail.<br>
+     * A position at the same time as the last sample (the same data displayed
+     * again) is ignored. A position out of the shoe (1000) isn't stored, and
+     * the next position starts a new trail.
+     * @param time The time of the position (in seconds).
+     * @param x The X coordinate of the CoP.
+     * @param y The Y coordinate of the CoP.
+     */
+    public void add(double time, double x, double y) {
+        if (x == 1000 || y == 1000) {
+            broken = true;
+            return;
+        }
+        if (broken) {
+            clear();
+        }
+        if (size > 0) {
+            double step = time - getTime(size - 1);
+            if (step == 0) {
+                return;
+            }
+            int newDirection = step > 0 ? 1 : -1;
+            if (Math.abs(step) > duration || (direction != 0 && newDirection != direction)) {
+                clear();
+            }
+            else {
+                direction = newDirection;
+            }
+        }
+        // Drop the samples which are too old, then the oldest one if the
+        // buffer is still full.
+        while (size > 0 && Math.abs(time - times[first]) > duration) {
+            drop();
+        }
+        if (size == CAPACITY) {
+            drop();
+        }
+        int index = (first + size) % CAPACITY;
+        times[index] = time;
+        xs[index] = x;
+        ys[index] = y;
+        size++;
+        count++;
+    }
+
+    /**
+     * Drop the oldest sample.
+     */
+    private void drop() {
+        first = (first + 1) % CAPACITY;
+        size--;
+    }
+
+    /**
+     * Remove all the samples of the trail.
+     */
+    public void clear() {
+        first = 0;
+        size = 0;
+        direction = 0;
+        broken = false;
+    }
+
+    /**
+     * Getter for the number of samples of the trail.
+     * @return The number of samples (at most CAPACITY).
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Getter for the number of samples added to the trail since its creation
+     * (including the dropped ones).
+     * @return The number of samples.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Getter for the time of a sample.
+     * @param i The index of the sample (0 for the oldest, getSize() - 1 for
+     * the newest).
+     * @return The time (in seconds).
+     */
+    public double getTime(int i) {
+        return times[(first + i) % CAPACITY];
+    }
+
+    /**
+     * Getter for the X coordinate of a sample.
+     * @param i The index of the sample (0 for the oldest, getSize() - 1 for
+     * the newest).
+     * @return The X coordinate of the CoP.
+     */
+    public double getX(int i) {
+        return xs[(first + i) % CAPACITY];
+    }
+
+    /**
+     * Getter for the Y coordinate of a sample.
+     * @param i The index of the sample (0 for the oldest, getSize() - 1 for
+     * the newest).
+     * @return The Y coordinate of the CoP.
+     */
+    public double getY(int i) {
+        return ys[(first + i) % CAPACITY];
+    }
+
+    /**
+     * Getter for the duration of the trail.
+     * @return The duration (in seconds).
+     */
+    public double getDuration() {
+        return duration;
+    }
+
+}
\ No newline at end of file
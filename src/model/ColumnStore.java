@@ -0,0 +1,96 @@
+package model;
+
+
+/**
+ * Columnar storage of recorded data.<br>
+ * Each column of a recording (time, sensor values, sensor pressures, motor
+ * values and CoP coordinates) is stored in its own primitive array, so a long
+ * recording doesn't need one boxed Double per value.
+ * @author Loïc David
+ * @see CSVReader
+ */
+public class ColumnStore extends Recording {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private double[][] columns;
+    private int size = 0;
+
+    /**
+     * Create a new instance of ColumnStore.
+     * @param nbColumns Number of columns of each row.
+     * @param nbSensors Number of sensors of the shoe.
+     * @param nbMotors Number of motors of the shoe.
+     * @see ColumnStore
+     */
+    public ColumnStore(int nbColumns, int nbSensors, int nbMotors) {
+        super(nbSensors, nbMotors);
+        columns = new double[nbColumns][INITIAL_CAPACITY];
+    }
+
+    /**
+     * Add a row at the end of the store.
+     * @param row Values of the row (at least one per column).
+     */
+    public void addRow(double[] row) {
+        if (size == columns[0].length) {
+            resize(2 * size);
+        }
+        for (int j = 0; j < columns.length; j++) {
+            columns[j][size] = row[j];
+        }
+        size++;
+    }
+
+    /**
+     * Release the memory allocated in advance for the next rows.<br>
+     * Called once all the rows have been added.
+     */
+    public void trim() {
+        if (size != columns[0].length) {
+            resize(Math.max(size, 1));
+        }
+    }
+
+    /**
+     * Change the capacity of all the columns.
+     * @param capacity The new capacity.
+     */
+    private void resize(int capacity) {
+        for (int j = 0; j < columns.length; j++) {
+            double[] column = new double[capacity];
+            System.arraycopy(columns[j], 0, column, 0, size);
+            columns[j] = column;
+        }
+    }
+
+    @Override
+    public double get(int i, int column) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        return columns[column][i];
+    }
+
+    /**
+     * Getter for a whole column.<br>
+     * The returned array may be longer than the number of rows and must not
+     * be modified.
+     * @param column Index of the column.
+     * @return The array containing the column.
+     */
+    public double[] getColumn(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public int getNbColumns() {
+        return columns.length;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,369 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+
+/**
+ * Recording read from a compressed recording file (.vsz).<br>
+ * The file starts with a RecordingHeader, followed by the rows grouped in
+ * blocks of BLOCK_ROWS rows. In a block, the values are stored column by
+ * column with the same precision as in the binary recording files (double
+ * for the time, float for the other columns). Each value is replaced by the
+ * difference between its bits and the bits of the previous row, so the
+ * values which change slowly give small numbers, and the block is compressed
+ * with a Deflater. The first row of a block is not delta-encoded, so each
+ * block can be decoded alone.<br>
+ * The file ends with the index of the blocks (offset of each block), so
+ * going to any row only decodes one block. The last decoded block is kept.
+ * @author Loïc David
+ * @see RecordingHeader
+ * @see BinaryRecording
+ * @see CSVReader
+ */
+public class CompressedRecording extends Recording {
+
+    /**
+     * Version of the format written by this class.
+     */
+    public static final byte VERSION = 2;
+    /**
+     * Number of rows of the blocks.
+     */
+    public static final int BLOCK_ROWS = 1024;
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    private static final int FOOTER_LENGTH = 12;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final RecordingHeader header;
+    private final MappedByteBuffer[] segments;
+    private final long[] blockOffsets;
+    private final int size;
+    private final int nbColumns;
+    private final Inflater inflater = new Inflater();
+    private byte[] compressed = new byte[BUFFER_SIZE];
+    private final ByteBuffer block;
+    private final double[] rows;
+    private int blockIndex = -1;
+    private boolean closed = false;
+
+    /**
+     * Create a new instance of CompressedRecording.<br>
+     * Map the file and read its header and its index of blocks.
+     * @param filePath Compressed file to read.
+     * @throws IOException The file cannot be mapped or is not a valid
+     * compressed recording.
+     * @see CompressedRecording
+     */
+    public CompressedRecording(String filePath) throws IOException {
+        this(map(filePath));
+    }
+
+    /**
+     * Create a new instance of CompressedRecording once the file is mapped.
+     * @see CompressedRecording
+     */
+    private CompressedRecording(MappedByteBuffer[] segments) throws IOException {
+        this(segments, RecordingHeader.read(segments[0].duplicate()));
+    }
+
+    /**
+     * Create a new instance of CompressedRecording once the header is read.
+     * @see CompressedRecording
+     */
+    private CompressedRecording(MappedByteBuffer[] segments, RecordingHeader header) throws IOException {
+        super(header.getNbSensors(), header.getNbMotors());
+        this.segments = segments;
+        this.header = header;
+        if (header.getVersion() != VERSION || header.getNbRows() > Integer.MAX_VALUE) {
+            throw new IOException("Not a compressed recording");
+        }
+        size = (int)header.getNbRows();
+        nbColumns = header.getNbColumns();
+        long fileSize = ((long)(segments.length - 1) << SEGMENT_SHIFT) + segments[segments.length - 1].limit();
+        ByteBuffer footer = ByteBuffer.wrap(read(fileSize - FOOTER_LENGTH, new byte[FOOTER_LENGTH], FOOTER_LENGTH)).order(ByteOrder.LITTLE_ENDIAN);
+        long indexOffset = footer.getLong();
+        int nbBlocks = footer.getInt();
+        if (nbBlocks != (size + BLOCK_ROWS - 1) / BLOCK_ROWS || indexOffset < header.getLength() || indexOffset + 8L * (nbBlocks + 1) + FOOTER_LENGTH != fileSize) {
+            throw new IOException("Invalid compressed recording index");
+        }
+        ByteBuffer index = ByteBuffer.wrap(read(indexOffset, new byte[8 * (nbBlocks + 1)], 8 * (nbBlocks + 1))).order(ByteOrder.LITTLE_ENDIAN);
+        blockOffsets = new long[nbBlocks + 1];
+        for (int k = 0; k <= nbBlocks; k++) {
+            blockOffsets[k] = index.getLong();
+        }
+        block = ByteBuffer.allocate(BLOCK_ROWS * getRowLength(nbColumns)).order(ByteOrder.LITTLE_ENDIAN);
+        rows = new double[BLOCK_ROWS * nbColumns];
+    }
+
+    /**
+     * Map a file in segments of 1 GB.
+     * @param filePath The file.
+     * @return The segments.
+     * @throws IOException The file cannot be mapped.
+     */
+    private static MappedByteBuffer[] map(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int)(fileSize >>> SEGMENT_SHIFT) + 1];
+            for (int k = 0; k < segments.length; k++) {
+                long position = (long)k << SEGMENT_SHIFT;
+                segments[k] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_MASK + 1, fileSize - position));
+            }
+            return segments;
+        }
+    }
+
+    /**
+     * Copy bytes of the file in an array.
+     * @param offset Offset of the first byte.
+     * @param dest The array.
+     * @param length Number of bytes to copy.
+     * @return The array.
+     * @throws IOException The bytes are out of the file.
+     */
+    private byte[] read(long offset, byte[] dest, int length) throws IOException {
+        if (offset < 0) {
+            throw new IOException("Invalid offset");
+        }
+        int copied = 0;
+        while (copied < length) {
+            long position = offset + copied;
+            int k = (int)(position >>> SEGMENT_SHIFT);
+            if (k >= segments.length) {
+                throw new IOException("Truncated compressed recording");
+            }
+            ByteBuffer segment = segments[k].duplicate();
+            int start = (int)(position & SEGMENT_MASK);
+            int len = Math.min(length - copied, segment.limit() - start);
+            if (len <= 0) {
+                throw new IOException("Truncated compressed recording");
+            }
+            segment.position(start);
+            segment.get(dest, copied, len);
+            copied += len;
+        }
+        return dest;
+    }
+
+    /**
+     * Getter for the length of an uncompressed row.
+     * @param nbColumns Number of columns of the rows.
+     * @return The length of a row (in bytes).
+     */
+    private static int getRowLength(int nbColumns) {
+        return 8 + 4 * (nbColumns - 1);
+    }
+
+    /**
+     * Write a recording in a compressed recording file.
+     * @param data The recording to write.
+     * @param shoe The shoe the data come from.
+     * @param filePath Compressed file to write.
+     * @throws IOException The file cannot be written or the recording doesn't
+     * match the shoe.
+     */
+    public static void write(Recording data, Shoe shoe, String filePath) throws IOException {
+        RecordingHeader header = new RecordingHeader(VERSION, shoe, RecordingHeader.estimateSampleRate(data), data.size());
+        int nbColumns = header.getNbColumns();
+        if (data.size() > 0 && data.getNbColumns() != nbColumns) {
+            throw new IOException("The recording doesn't match the shoe");
+        }
+        int nbBlocks = (data.size() + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        long[] blockOffsets = new long[nbBlocks + 1];
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_ROWS * getRowLength(nbColumns)).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] compressed = new byte[BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, header.getLength())).order(ByteOrder.LITTLE_ENDIAN);
+        Deflater deflater = new Deflater();
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            header.write(buffer);
+            flush(buffer, channel);
+            long offset = header.getLength();
+            for (int k = 0; k < nbBlocks; k++) {
+                blockOffsets[k] = offset;
+                int first = k * BLOCK_ROWS;
+                int nbRows = Math.min(BLOCK_ROWS, data.size() - first);
+                encodeBlock(data, first, nbRows, block);
+                deflater.reset();
+                deflater.setInput(block.array(), 0, block.position());
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int len = deflater.deflate(compressed);
+                    channel.write(ByteBuffer.wrap(compressed, 0, len));
+                    offset += len;
+                }
+            }
+            blockOffsets[nbBlocks] = offset;
+            for (int k = 0; k <= nbBlocks; k++) {
+                if (buffer.remaining() < 8 + FOOTER_LENGTH) {
+                    flush(buffer, channel);
+                }
+                buffer.putLong(blockOffsets[k]);
+            }
+            buffer.putLong(offset);
+            buffer.putInt(nbBlocks);
+            flush(buffer, channel);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Encode rows of a recording in a block: column by column, the
+     * difference between the bits of each value and the bits of the previous
+     * row (zigzag encoded).
+     * @param data The recording.
+     * @param first Index of the first row of the block.
+     * @param nbRows Number of rows of the block.
+     * @param block The buffer receiving the block.
+     */
+    private static void encodeBlock(Recording data, int first, int nbRows, ByteBuffer block) {
+        block.clear();
+        long previousTime = 0;
+        for (int i = first; i < first + nbRows; i++) {
+            long bits = Double.doubleToLongBits(data.get(i, 0));
+            long delta = bits - previousTime;
+            block.putLong((delta << 1) ^ (delta >> 63));
+            previousTime = bits;
+        }
+        for (int j = 1; j < data.getNbColumns(); j++) {
+            int previous = 0;
+            for (int i = first; i < first + nbRows; i++) {
+                int bits = Float.floatToIntBits((float)data.get(i, j));
+                int delta = bits - previous;
+                block.putInt((delta << 1) ^ (delta >> 31));
+                previous = bits;
+            }
+        }
+    }
+
+    /**
+     * Write the content of a buffer in a file.
+     * @param buffer The buffer.
+     * @param channel The channel of the file.
+     * @throws IOException The buffer cannot be written.
+     */
+    private static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Decode the kth block and keep it as the current block.
+     * @param k Index of the block.
+     * @throws IllegalStateException The block is corrupted, or the
+     * CompressedRecording is closed.
+     */
+    private void decodeBlock(int k) throws IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("The recording is closed");
+        }
+        int first = k * BLOCK_ROWS;
+        int nbRows = Math.min(BLOCK_ROWS, size - first);
+        long length = blockOffsets[k + 1] - blockOffsets[k];
+        try {
+            if (length < 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Invalid block length");
+            }
+            if (length > compressed.length) {
+                compressed = new byte[(int)length];
+            }
+            read(blockOffsets[k], compressed, (int)length);
+            inflater.reset();
+            inflater.setInput(compressed, 0, (int)length);
+            int expected = nbRows * getRowLength(nbColumns);
+            int len = 0;
+            while (len < expected && !inflater.finished()) {
+                int n = inflater.inflate(block.array(), len, expected - len);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                len += n;
+            }
+            if (len != expected) {
+                throw new IOException("Truncated block");
+            }
+        } catch (IOException | DataFormatException ex) {
+            blockIndex = -1;
+            throw new IllegalStateException("Block " + k + " cannot be decoded", ex);
+        }
+        block.clear();
+        long time = 0;
+        for (int i = 0; i < nbRows; i++) {
+            long zigzag = block.getLong();
+            time += (zigzag >>> 1) ^ -(zigzag & 1);
+            rows[i * nbColumns] = Double.longBitsToDouble(time);
+        }
+        for (int j = 1; j < nbColumns; j++) {
+            int bits = 0;
+            for (int i = 0; i < nbRows; i++) {
+                int zigzag = block.getInt();
+                bits += (zigzag >>> 1) ^ -(zigzag & 1);
+                rows[i * nbColumns + j] = Float.intBitsToFloat(bits);
+            }
+        }
+        blockIndex = k;
+    }
+
+    @Override
+    public double get(int i, int column) throws IllegalStateException {
+        if (i >= size || i < 0) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        int k = i / BLOCK_ROWS;
+        if (k != blockIndex) {
+            decodeBlock(k);
+        }
+        return rows[(i - k * BLOCK_ROWS) * nbColumns + column];
+    }
+
+    @Override
+    public void getRow(int i, double[] row) throws IllegalStateException {
+        if (i >= size || i < 0) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        int k = i / BLOCK_ROWS;
+        if (k != blockIndex) {
+            decodeBlock(k);
+        }
+        System.arraycopy(rows, (i - k * BLOCK_ROWS) * nbColumns, row, 0, nbColumns);
+    }
+
+    @Override
+    public void close() {
+        // The Inflater uses native memory.
+        closed = true;
+        inflater.end();
+    }
+
+    @Override
+    public int getNbColumns() {
+        return nbColumns;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the header of the file.
+     * @return The header.
+     */
+    public RecordingHeader getHeader() {
+        return header;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package model;
+
+
+/**
+ * Data of one shoe at a given time.<br>
+ * Contain the time, the values and the pressures of the sensors, the values
+ * of the motors and the position of the CoP.<br>
+ * A Frame is immutable, so it can be shared between threads without any
+ * synchronisation.
+ * @author Loïc David
+ * @see FrameProcessor
+ * @see FramePublisher
+ */
+public final class Frame {
+
+    private final double time;
+    private final double[] values;
+    private final double[] pressures;
+    private final double[] motors;
+    private final double xCop;
+    private final double yCop;
+    private final long arrivalTime;
+
+    /**
+     * Create a new instance of Frame.<br>
+     * The arrays are not copied: they belong to the Frame and must not be
+     * modified after this call.
+     * @param time Time (in second).
+     * @param values Values of the sensors.
+     * @param pressures Pressures of the sensors (in mmHg).
+     * @param motors Values of the motors.
+     * @param xCop X coordinate of the CoP.
+     * @param yCop Y coordinate of the CoP.
+     * @param arrivalTime Time the data arrived (System.nanoTime()).
+     * @see Frame
+     */
+    Frame(double time, double[] values, double[] pressures, double[] motors, double xCop, double yCop, long arrivalTime) {
+        this.time = time;
+        this.values = values;
+        this.pressures = pressures;
+        this.motors = motors;
+        this.xCop = xCop;
+        this.yCop = yCop;
+        this.arrivalTime = arrivalTime;
+    }
+
+    /**
+     * Getter for the time.
+     * @return The time (in second).
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Getter for the value of the ith sensor.
+     * @param i Index of the sensor (starting at 0).
+     * @return The value of the sensor.
+     */
+    public double getValue(int i) {
+        return values[i];
+    }
+
+    /**
+     * Getter for the pressure of the ith sensor.
+     * @param i Index of the sensor (starting at 0).
+     * @return The pressure of the sensor (in mmHg).
+     */
+    public double getPressure(int i) {
+        return pressures[i];
+    }
+
+    /**
+     * Getter for the value of the ith motor.
+     * @param i Index of the motor (starting at 0).
+     * @return The value of the motor.
+     */
+    public double getMotor(int i) {
+        return motors[i];
+    }
+
+    /**
+     * Getter for the X coordinate of the CoP.
+     * @return The X coordinate of the CoP.
+     */
+    public double getXcop() {
+        return xCop;
+    }
+
+    /**
+     * Getter for the Y coordinate of the CoP.
+     * @return The Y coordinate of the CoP.
+     */
+    public double getYcop() {
+        return yCop;
+    }
+
+    /**
+     * Getter for the time the data arrived (to measure latencies).
+     * @return The value of System.nanoTime() when the data arrived.
+     */
+    public long getArrivalTime() {
+        return arrivalTime;
+    }
+
+    /**
+     * Getter for the number of sensors.
+     * @return The number of sensors.
+     */
+    public int getNbSensors() {
+        return values.length;
+    }
+
+    /**
+     * Getter for the number of motors.
+     * @return The number of motors.
+     */
+    public int getNbMotors() {
+        return motors.length;
+    }
+
+    /**
+     * Getter for the number of values of the frame written as a line of a
+     * CSV file.
+     * @return The number of columns.
+     */
+    public int getNbColumns() {
+        return 2 * values.length + motors.length + 3;
+    }
+
+    /**
+     * Copy the frame in an array organised like a line of the CSV files:
+     * time, values of the sensors, pressures of the sensors, values of the
+     * motors, X and Y coordinates of the CoP.
+     * @param row The array receiving the frame (at least getNbColumns()
+     * values).
+     */
+    public void toRow(double[] row) {
+        row[0] = time;
+        System.arraycopy(values, 0, row, 1, values.length);
+        System.arraycopy(pressures, 0, row, 1 + values.length, pressures.length);
+        System.arraycopy(motors, 0, row, 1 + 2 * values.length, motors.length);
+        row[1 + 2 * values.length + motors.length] = xCop;
+        row[2 + 2 * values.length + motors.length] = yCop;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,288 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Parser for the lines of data (from the serial port or from the CSV
+ * files).<br>
+ * A line is a list of decimal numbers separated by ';'. The numbers are read
+ * directly from the characters of the line and stored in an array given by
+ * the caller, no object is created while parsing.<br>
+ * The numbers which can't be converted exactly this way (too many digits,
+ * huge exponent, "NaN"...) are given to Double.parseDouble, so the result is
+ * always the same as with Double.parseDouble.
+ * @author Loïc David
+ * @see SerialReader
+ * @see CSVReader
+ */
+public final class FrameParser {
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final long MAX_DIGITS_MANTISSA = 100000000000000000L;
+
+    /**
+     * This class only contains static methods.
+     */
+    private FrameParser() {
+    }
+
+    /**
+     * Parse a line stored in a byte array.
+     * @param buffer Buffer containing the line (ASCII).
+     * @param offset Index of the first character of the line.
+     * @param length Length of the line (without the end of line).
+     * @param values Array receiving the values.
+     * @return The number of values of the line.
+     * @throws NumberFormatException If a value cannot be parsed or if the line
+     * contains more values than the array can hold.
+     */
+    public static int parse(byte[] buffer, int offset, int length, double[] values) throws NumberFormatException {
+        int end = offset + length;
+        int count = 0;
+        int start = offset;
+        for (int i = offset; i <= end; i++) {
+            if (i == end || buffer[i] == ';') {
+                if (count == values.length) {
+                    throw new NumberFormatException("Too many values");
+                }
+                values[count] = parseValue(buffer, start, i);
+                count++;
+                start = i + 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Parse a line stored in a CharSequence (a String for example).
+     * @param line The line (without the end of line).
+     * @param values Array receiving the values.
+     * @return The number of values of the line.
+     * @throws NumberFormatException If a value cannot be parsed or if the line
+     * contains more values than the array can hold.
+     */
+    public static int parse(CharSequence line, double[] values) throws NumberFormatException {
+        int end = line.length();
+        int count = 0;
+        int start = 0;
+        for (int i = 0; i <= end; i++) {
+            if (i == end || line.charAt(i) == ';') {
+                if (count == values.length) {
+                    throw new NumberFormatException("Too many values");
+                }
+                values[count] = parseValue(line, start, i);
+                count++;
+                start = i + 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Parse one number stored in a byte array.
+     * @param buffer Buffer containing the number (ASCII).
+     * @param start Index of the first character of the number.
+     * @param end Index of the end of the number (excluded).
+     * @return The value of the number.
+     * @throws NumberFormatException If the number cannot be parsed.
+     */
+    private static double parseValue(byte[] buffer, int start, int end) throws NumberFormatException {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean point = false;
+        boolean exact = true;
+        for (; i < end; i++) {
+            int c = buffer[i];
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (mantissa < MAX_DIGITS_MANTISSA) {
+                    mantissa = 10 * mantissa + (c - '0');
+                    if (point) {
+                        exponent--;
+                    }
+                }
+                else {
+                    exact = false;
+                }
+            }
+            else if (c == '.' && !point) {
+                point = true;
+            }
+            else if ((c == 'e' || c == 'E') && digits > 0) {
+                int e = parseExponent(buffer, i + 1, end);
+                if (e == Integer.MIN_VALUE) {
+                    exact = false;
+                }
+                else {
+                    exponent += e;
+                }
+                i = end;
+                break;
+            }
+            else {
+                exact = false;
+                break;
+            }
+        }
+        if (exact && digits > 0) {
+            double value = toDouble(mantissa, exponent);
+            if (!Double.isNaN(value)) {
+                return negative ? -value : value;
+            }
+        }
+        return Double.parseDouble(new String(buffer, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Parse one number stored in a CharSequence.
+     * @param line CharSequence containing the number.
+     * @param start Index of the first character of the number.
+     * @param end Index of the end of the number (excluded).
+     * @return The value of the number.
+     * @throws NumberFormatException If the number cannot be parsed.
+     */
+    private static double parseValue(CharSequence line, int start, int end) throws NumberFormatException {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (line.charAt(i) == '-' || line.charAt(i) == '+')) {
+            negative = line.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean point = false;
+        boolean exact = true;
+        for (; i < end; i++) {
+            char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (mantissa < MAX_DIGITS_MANTISSA) {
+                    mantissa = 10 * mantissa + (c - '0');
+                    if (point) {
+                        exponent--;
+                    }
+                }
+                else {
+                    exact = false;
+                }
+            }
+            else if (c == '.' && !point) {
+                point = true;
+            }
+            else if ((c == 'e' || c == 'E') && digits > 0) {
+                int e = parseExponent(line, i + 1, end);
+                if (e == Integer.MIN_VALUE) {
+                    exact = false;
+                }
+                else {
+                    exponent += e;
+                }
+                i = end;
+                break;
+            }
+            else {
+                exact = false;
+                break;
+            }
+        }
+        if (exact && digits > 0) {
+            double value = toDouble(mantissa, exponent);
+            if (!Double.isNaN(value)) {
+                return negative ? -value : value;
+            }
+        }
+        return Double.parseDouble(line.subSequence(start, end).toString());
+    }
+
+    /**
+     * Parse the exponent of a number stored in a byte array.
+     * @param buffer Buffer containing the exponent (ASCII).
+     * @param start Index of the first character after the 'e'.
+     * @param end Index of the end of the number (excluded).
+     * @return The exponent, or Integer.MIN_VALUE if it is not a small integer.
+     */
+    private static int parseExponent(byte[] buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        if (i == end || end - i > 3) {
+            return Integer.MIN_VALUE;
+        }
+        int e = 0;
+        for (; i < end; i++) {
+            if (buffer[i] < '0' || buffer[i] > '9') {
+                return Integer.MIN_VALUE;
+            }
+            e = 10 * e + (buffer[i] - '0');
+        }
+        return negative ? -e : e;
+    }
+
+    /**
+     * Parse the exponent of a number stored in a CharSequence.
+     * @param line CharSequence containing the exponent.
+     * @param start Index of the first character after the 'e'.
+     * @param end Index of the end of the number (excluded).
+     * @return The exponent, or Integer.MIN_VALUE if it is not a small integer.
+     */
+    private static int parseExponent(CharSequence line, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (line.charAt(i) == '-' || line.charAt(i) == '+')) {
+            negative = line.charAt(i) == '-';
+            i++;
+        }
+        if (i == end || end - i > 3) {
+            return Integer.MIN_VALUE;
+        }
+        int e = 0;
+        for (; i < end; i++) {
+            if (line.charAt(i) < '0' || line.charAt(i) > '9') {
+                return Integer.MIN_VALUE;
+            }
+            e = 10 * e + (line.charAt(i) - '0');
+        }
+        return negative ? -e : e;
+    }
+
+    /**
+     * Compute mantissa * 10^exponent when it can be done exactly (the
+     * mantissa and the power of ten are both exact doubles, so the result is
+     * correctly rounded).
+     * @param mantissa The digits of the number.
+     * @param exponent The power of ten.
+     * @return The value, or NaN if it can't be computed exactly.
+     */
+    private static double toDouble(long mantissa, int exponent) {
+        if (mantissa > MAX_EXACT_MANTISSA) {
+            return Double.NaN;
+        }
+        if (exponent == 0) {
+            return mantissa;
+        }
+        if (exponent > 0 && exponent < POWERS_OF_TEN.length) {
+            return mantissa * POWERS_OF_TEN[exponent];
+        }
+        if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            return mantissa / POWERS_OF_TEN[-exponent];
+        }
+        return Double.NaN;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package model;
+
+
+/**
+ * Convert the lines read from the serial port into Frames.<br>
+ * If the data type is "All data", the line already contains all the data of
+ * the Frame. If the data type is "Only sensors", the line only contains the
+ * time and the values of the sensors: the pressures, the CoP and the values
+ * of the motors are computed.<br>
+ * This class doesn't use any property, so it can be used outside the JavaFX
+ * thread (but by only one thread at a time).
+ * @author Loïc David
+ * @see Frame
+ * @see SerialReader
+ * @see PressureCalibration
+ * @see CoPEngine
+ * @see MotorRules
+ */
+public class FrameProcessor {
+
+    private static final int MAX_VALUES = 256;
+
+    private final Shoe shoe;
+    private final PressureCalibration calibration;
+    private final MotorRules motorRules;
+    private final double[] line = new double[MAX_VALUES];
+    private final double[] cop = new double[2];
+
+    /**
+     * Create a new instance of FrameProcessor.
+     * @param shoe The Shoe the lines come from.
+     * @param calibration The calibration used to compute the pressures.
+     * @param motorRules The rules used to compute the values of the motors.
+     * @see FrameProcessor
+     */
+    public FrameProcessor(Shoe shoe, PressureCalibration calibration, MotorRules motorRules) {
+        this.shoe = shoe;
+        this.calibration = calibration;
+        this.motorRules = motorRules;
+    }
+
+    /**
+     * Convert a line into a Frame.
+     * @param buffer Buffer containing the line (without the end of line).
+     * @param length Length of the line.
+     * @param dataType 0 for "All data", 1 for "Only sensors".
+     * @param arrivalTime Time the line arrived (System.nanoTime()).
+     * @return The Frame.
+     * @throws NumberFormatException If the line cannot be parsed or doesn't
+     * contain enough values.
+     */
+    public Frame process(byte[] buffer, int length, int dataType, long arrivalTime) throws NumberFormatException {
+        int nbSensors = shoe.getSensors().size();
+        int nbMotors = shoe.getMotors().size();
+        int nbValues = FrameParser.parse(buffer, 0, length, line);
+        double[] values = new double[nbSensors];
+        double[] pressures = new double[nbSensors];
+        double[] motors = new double[nbMotors];
+        // Data type = "All data".
+        if (dataType == 0) {
+            if (nbValues < 2 * nbSensors + nbMotors + 3) {
+                throw new NumberFormatException("Missing values");
+            }
+            System.arraycopy(line, 1, values, 0, nbSensors);
+            System.arraycopy(line, 1 + nbSensors, pressures, 0, nbSensors);
+            System.arraycopy(line, 1 + 2 * nbSensors, motors, 0, nbMotors);
+            return new Frame(line[0], values, pressures, motors, line[1 + 2 * nbSensors + nbMotors], line[2 + 2 * nbSensors + nbMotors], arrivalTime);
+        }
+        // Data type = "Only sensors".
+        if (nbValues < nbSensors + 1) {
+            throw new NumberFormatException("Missing values");
+        }
+        System.arraycopy(line, 1, values, 0, nbSensors);
+        // Compute sensor pressures.
+        for (int i = 0; i < nbSensors; i++) {
+            pressures[i] = calibration.toPressure(i, values[i]);
+        }
+        // Compute CoP.
+        shoe.getCoPEngine().compute(pressures, 0, cop);
+        double Xcop = cop[0];
+        double Ycop = cop[1];
+        // Compute motor values.
+        motorRules.evaluate(line[0], values, pressures, Xcop, Ycop, motors);
+        return new Frame(line[0], values, pressures, motors, Xcop, Ycop, arrivalTime);
+    }
+
+}
\ No newline at end of file
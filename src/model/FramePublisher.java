@@ -0,0 +1,109 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicReference;
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.DoubleProperty;
+
+
+/**
+ * Give the Frames computed outside the JavaFX thread to the JavaFX
+ * thread.<br>
+ * The processing thread publishes each Frame in a slot. Once per pulse (each
+ * time the screen is refreshed), only the newest published Frame is applied
+ * to the properties of the Shoe. Thus, the JavaFX thread is not flooded when
+ * many Frames are read.<br>
+ * The Frames are immutable, so the slot is only an atomic reference: no lock
+ * is needed.<br>
+ * The number of Frames displayed and skipped (replaced before a pulse), the
+ * duration of the update of the properties and the latency between the
+ * arrival of a line and its display are measured in the Metrics.
+ * @author Loïc David
+ * @see SerialReader
+ * @see Frame
+ */
+public class FramePublisher {
+
+    private final Shoe shoe;
+    private final DoubleProperty time;
+    private final AtomicReference<Frame> slot = new AtomicReference<>();
+    private AnimationTimer timer;
+    private double[] row = new double[0];
+    private final Metrics.Counter displayedFrames;
+    private final Metrics.Counter skippedFrames;
+    private final LatencyHistogram applyDuration;
+    private final LatencyHistogram latency;
+
+    /**
+     * Create a new instance of FramePublisher.
+     * @param shoe The Shoe receiving the Frames.
+     * @param time The property receiving the time of the Frames.
+     * @see FramePublisher
+     */
+    public FramePublisher(Shoe shoe, DoubleProperty time) {
+        this.shoe = shoe;
+        this.time = time;
+        Metrics metrics = Metrics.getInstance();
+        String name = "display." + shoe.getSide().toString() + ".";
+        displayedFrames = metrics.counter(name + "frames");
+        skippedFrames = metrics.counter(name + "skipped");
+        applyDuration = metrics.histogram(name + "apply");
+        latency = metrics.histogram(name + "latency");
+    }
+
+    /**
+     * Publish a Frame (any thread). If the previous Frame hasn't been applied
+     * yet, it is replaced by this one.
+     * @param frame The Frame to publish.
+     */
+    public void publish(Frame frame) {
+        if (slot.getAndSet(frame) != null) {
+            skippedFrames.increment();
+        }
+    }
+
+    /**
+     * Start applying the published Frames at each pulse (JavaFX thread only).
+     */
+    public void start() {
+        if (timer == null) {
+            timer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    apply();
+                }
+            };
+        }
+        timer.start();
+    }
+
+    /**
+     * Stop applying the published Frames (JavaFX thread only).
+     */
+    public void stop() {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Apply the newest published Frame to the Shoe, if there is one.<br>
+     * Called once per pulse (JavaFX thread only).
+     */
+    public void apply() {
+        Frame frame = slot.getAndSet(null);
+        if (frame == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (row.length < frame.getNbColumns()) {
+            row = new double[frame.getNbColumns()];
+        }
+        frame.toRow(row);
+        time.setValue(frame.getTime());
+        shoe.applyRow(row, frame.getNbSensors(), frame.getNbMotors());
+        applyDuration.recordSince(start);
+        latency.recordSince(frame.getArrivalTime());
+        displayedFrames.increment();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,288 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReference;
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import model.Shoe.Side;
+
+
+/**
+ * Pair the Frames of the left and right shoes.<br>
+ * The Frames of both shoes are given to the FrameSynchronizer as they are
+ * processed. Two Frames are paired when the times given by the shoes differ
+ * by at most the tolerance. The Frames which cannot be paired any more
+ * (their time is too old) are dropped and counted as unmatched. Each pair is
+ * published as a StereoFrame.<br>
+ * For each pair, the skew (difference between the arrival times of the two
+ * Frames on the computer) is measured, and the jitter is the mean variation
+ * of the skew between two pairs (computed like in RFC 3550).<br>
+ * The settings are read in the setting file
+ * (ressources/synchronization.txt): tolerance (in milliseconds, less than
+ * half the sampling period, else a Frame whose pair has been lost may be
+ * paired with a neighbour) and maximum number of Frames waiting for their
+ * pair (per shoe).
+ * @author Loïc David
+ * @see StereoFrame
+ * @see SerialReader
+ * @see TimeController
+ */
+public class FrameSynchronizer {
+
+    private double tolerance;
+    private int capacity;
+    private final ArrayDeque<Frame> pendingLeft = new ArrayDeque<>();
+    private final ArrayDeque<Frame> pendingRight = new ArrayDeque<>();
+    private final AtomicReference<StereoFrame> slot = new AtomicReference<>();
+    private final DoubleProperty time = new SimpleDoubleProperty(0);
+    private AnimationTimer timer;
+    private StereoFrameListener listener;
+    private volatile long pairs = 0;
+    private volatile long unmatchedLeft = 0;
+    private volatile long unmatchedRight = 0;
+    private volatile long skew = 0;
+    private volatile double jitter = 0;
+    private volatile double timeDifference = 0;
+
+    /**
+     * Create a new instance of FrameSynchronizer.
+     * @throws IOException The settings cannot be loaded.
+     * @throws NumberFormatException Issue to convert data from the setting
+     * file.
+     * @see FrameSynchronizer
+     */
+    public FrameSynchronizer() throws IOException, NumberFormatException {
+        initializeParameters();
+    }
+
+    /**
+     * Interface used to receive the StereoFrames.
+     */
+    public static interface StereoFrameListener {
+        /**
+         * Called for each pair of Frames (outside the JavaFX thread).
+         * @param frame The StereoFrame.
+         */
+        public void onStereoFrame(StereoFrame frame);
+    }
+
+    /**
+     * Read the parameters of the synchronization in the setting file
+     * (ressources/synchronization.txt).
+     * @throws IOException The parameters cannot be loaded.
+     * @throws NumberFormatException Issue to convert data from the setting
+     * file.
+     */
+    public final void initializeParameters() throws IOException, NumberFormatException {
+        InputStream flux;
+        flux = new FileInputStream("././ressources/synchronization.txt");
+        InputStreamReader inputStreamReader = new InputStreamReader(flux);
+        BufferedReader buff = new BufferedReader(inputStreamReader);
+        double newTolerance = Double.parseDouble(buff.readLine()) / 1000;
+        int newCapacity = Integer.parseInt(buff.readLine());
+        buff.close();
+        inputStreamReader.close();
+        flux.close();
+        if (newTolerance < 0 || newCapacity < 1) {
+            throw new NumberFormatException("Wrong synchronization settings");
+        }
+        synchronized (this) {
+            tolerance = newTolerance;
+            capacity = newCapacity;
+        }
+    }
+
+    /**
+     * Forget the waiting Frames and the statistics (before a new reading).
+     */
+    public synchronized void reset() {
+        pendingLeft.clear();
+        pendingRight.clear();
+        slot.set(null);
+        pairs = 0;
+        unmatchedLeft = 0;
+        unmatchedRight = 0;
+        skew = 0;
+        jitter = 0;
+        timeDifference = 0;
+    }
+
+    /**
+     * Give a Frame to the FrameSynchronizer (any thread). The Frames of a
+     * shoe must be given in the order of their times.
+     * @param side The side of the shoe the Frame comes from.
+     * @param frame The Frame.
+     */
+    public synchronized void offer(Side side, Frame frame) {
+        boolean left = side == Side.LEFT;
+        ArrayDeque<Frame> own = left ? pendingLeft : pendingRight;
+        ArrayDeque<Frame> other = left ? pendingRight : pendingLeft;
+        // Look for the nearest Frame of the other shoe. The older ones will
+        // never be paired.
+        Frame match = null;
+        double best = tolerance;
+        int older = 0;
+        int index = 0;
+        for (Iterator<Frame> it = other.iterator(); it.hasNext(); index++) {
+            Frame candidate = it.next();
+            double difference = Math.abs(candidate.getTime() - frame.getTime());
+            if (difference <= best) {
+                match = candidate;
+                best = difference;
+                older = index;
+            }
+            else if (candidate.getTime() > frame.getTime()) {
+                break;
+            }
+        }
+        if (match == null) {
+            // Drop the Frames of the other shoe which are too old for this
+            // Frame (and the next ones).
+            while (!other.isEmpty() && other.peekFirst().getTime() < frame.getTime() - tolerance) {
+                other.pollFirst();
+                countUnmatched(!left);
+            }
+            own.addLast(frame);
+            if (own.size() > capacity) {
+                own.pollFirst();
+                countUnmatched(left);
+            }
+            return;
+        }
+        for (int i = 0; i < older; i++) {
+            other.pollFirst();
+            countUnmatched(!left);
+        }
+        other.pollFirst();
+        StereoFrame stereo = left ? new StereoFrame(frame, match) : new StereoFrame(match, frame);
+        long newSkew = stereo.getSkew();
+        if (pairs > 0) {
+            jitter += (Math.abs(newSkew - skew) - jitter) / 16;
+        }
+        skew = newSkew;
+        timeDifference = stereo.getTimeDifference();
+        pairs++;
+        slot.set(stereo);
+        if (listener != null) {
+            listener.onStereoFrame(stereo);
+        }
+    }
+
+    /**
+     * Count an unmatched Frame.
+     * @param left true for a Frame of the left shoe, false for the right one.
+     */
+    private void countUnmatched(boolean left) {
+        if (left) {
+            unmatchedLeft++;
+        }
+        else {
+            unmatchedRight++;
+        }
+    }
+
+    /**
+     * Start applying the time of the newest StereoFrame to the timeProperty
+     * at each pulse (JavaFX thread only).
+     */
+    public void start() {
+        if (timer == null) {
+            timer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    StereoFrame stereo = slot.getAndSet(null);
+                    if (stereo != null) {
+                        time.setValue(stereo.getTime());
+                    }
+                }
+            };
+        }
+        timer.start();
+    }
+
+    /**
+     * Stop applying the time of the StereoFrames (JavaFX thread only).
+     */
+    public void stop() {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Setter for the listener receiving the StereoFrames.
+     * @param listener The listener (null to remove it).
+     */
+    public synchronized void setListener(StereoFrameListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Contain the time of the newest StereoFrame.
+     * @return The timeProperty of the FrameSynchronizer.
+     */
+    public DoubleProperty timeProperty() {
+        return time;
+    }
+
+    /**
+     * Getter for the number of pairs of Frames since the last reset.
+     * @return The number of pairs.
+     */
+    public long getPairs() {
+        return pairs;
+    }
+
+    /**
+     * Getter for the number of Frames of the left shoe which couldn't be
+     * paired since the last reset.
+     * @return The number of unmatched Frames.
+     */
+    public long getUnmatchedLeft() {
+        return unmatchedLeft;
+    }
+
+    /**
+     * Getter for the number of Frames of the right shoe which couldn't be
+     * paired since the last reset.
+     * @return The number of unmatched Frames.
+     */
+    public long getUnmatchedRight() {
+        return unmatchedRight;
+    }
+
+    /**
+     * Getter for the skew of the last pair (arrival time of the left Frame
+     * minus arrival time of the right Frame).
+     * @return The skew (in nanoseconds).
+     */
+    public long getSkew() {
+        return skew;
+    }
+
+    /**
+     * Getter for the jitter of the skew.
+     * @return The jitter (in nanoseconds).
+     */
+    public double getJitter() {
+        return jitter;
+    }
+
+    /**
+     * Getter for the difference between the times given by the shoes for
+     * the last pair.
+     * @return The time of the left shoe minus the time of the right shoe (in
+     * second).
+     */
+    public double getTimeDifference() {
+        return timeDifference;
+    }
+
+}
\ No newline at end of file
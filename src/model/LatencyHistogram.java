@@ -0,0 +1,143 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Histogram of latencies (or of any positive values).<br>
+ * The values are counted in buckets whose width grows with the values (like
+ * HdrHistogram): the values lower than 32 have their own bucket, then each
+ * power of two is cut into 16 buckets. Thus, the percentiles are given with
+ * an error lower than 6.25%, with a fixed memory (1024 counters) and without
+ * any lock: recording a value is only a few atomic additions, so the
+ * histograms can always be used.
+ * @author Loïc David
+ * @see Metrics
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NB_BUCKETS = 64 * SUB_BUCKETS;
+    private final AtomicLongArray counts = new AtomicLongArray(NB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Add a value to the histogram (any thread).
+     * @param value The value (the negative values are counted as 0).
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        long previous;
+        while (value > (previous = max.get()) && !max.compareAndSet(previous, value)) {
+        }
+    }
+
+    /**
+     * Add the time elapsed since a given time (any thread).
+     * @param start The start time (System.nanoTime()).
+     */
+    public void recordSince(long start) {
+        record((System.nanoTime() - start) / 1000);
+    }
+
+    /**
+     * Index of the bucket of a value.
+     * @param value The value (positive).
+     * @return The index of the bucket.
+     */
+    private static int bucket(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int)value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int)(value >>> shift);
+    }
+
+    /**
+     * Greatest value counted in a bucket.
+     * @param bucket The index of the bucket.
+     * @return The greatest value of the bucket.
+     */
+    private static long highestValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Getter for a percentile of the values.
+     * @param percentile The percentile (between 0 and 100).
+     * @return The value (0 if the histogram is empty).
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[NB_BUCKETS];
+        for (int i = 0; i < NB_BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < NB_BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Getter for the number of values.
+     * @return The number of values.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Getter for the mean of the values.
+     * @return The mean (0 if the histogram is empty).
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double)sum.sum() / n;
+    }
+
+    /**
+     * Getter for the greatest value.
+     * @return The greatest value (0 if the histogram is empty).
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Forget all the values.
+     */
+    public void reset() {
+        for (int i = 0; i < NB_BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+}
\ No newline at end of file
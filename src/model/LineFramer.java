@@ -0,0 +1,110 @@
+package model;
+
+
+/**
+ * Cut a stream of bytes into lines.<br>
+ * The bytes read from the serial port are given to the LineFramer as they
+ * come. They are copied in a buffer which is reused for all the lines, and
+ * each time a '\n' is found, the complete line is handed to the
+ * FrameListener. A read can contain any number of lines.<br>
+ * A line longer than the buffer is dropped.
+ * @author Loïc David
+ * @see SerialReader
+ */
+public class LineFramer {
+
+    private final byte[] line;
+    private int length = 0;
+    private boolean overflow = false;
+    private long droppedLines = 0;
+    private final FrameListener listener;
+
+    /**
+     * Create a new instance of LineFramer.
+     * @param capacity Maximum length of a line (in bytes).
+     * @param listener The listener receiving the complete lines.
+     * @see LineFramer
+     */
+    public LineFramer(int capacity, FrameListener listener) {
+        line = new byte[capacity];
+        this.listener = listener;
+    }
+
+    /**
+     * Interface used to receive the lines found by a LineFramer.
+     */
+    public static interface FrameListener {
+        /**
+         * Called for each complete line.<br>
+         * The line is only valid during the call: the buffer is reused for
+         * the next line.
+         * @param frame Buffer containing the line, without '\r' and '\n'.
+         * @param length Length of the line.
+         */
+        public void onFrame(byte[] frame, int length);
+    }
+
+    /**
+     * Add bytes at the end of the current line and hand each line completed
+     * by these bytes to the listener.
+     * @param buffer Buffer containing the bytes.
+     * @param offset Index of the first byte to add.
+     * @param len Number of bytes to add.
+     */
+    public void feed(byte[] buffer, int offset, int len) {
+        int end = offset + len;
+        int start = offset;
+        for (int i = offset; i < end; i++) {
+            if (buffer[i] == '\n') {
+                append(buffer, start, i - start);
+                if (!overflow) {
+                    int frameLength = length;
+                    if (frameLength > 0 && line[frameLength - 1] == '\r') {
+                        frameLength--;
+                    }
+                    listener.onFrame(line, frameLength);
+                }
+                length = 0;
+                overflow = false;
+                start = i + 1;
+            }
+        }
+        append(buffer, start, end - start);
+    }
+
+    /**
+     * Copy bytes at the end of the current line.
+     * @param buffer Buffer containing the bytes.
+     * @param offset Index of the first byte to copy.
+     * @param len Number of bytes to copy.
+     */
+    private void append(byte[] buffer, int offset, int len) {
+        if (overflow || len == 0) {
+            return;
+        }
+        if (length + len > line.length) {
+            overflow = true;
+            droppedLines++;
+            return;
+        }
+        System.arraycopy(buffer, offset, line, length, len);
+        length += len;
+    }
+
+    /**
+     * Forget the current incomplete line.
+     */
+    public void reset() {
+        length = 0;
+        overflow = false;
+    }
+
+    /**
+     * Getter for the number of lines dropped because they were too long.
+     * @return The number of dropped lines.
+     */
+    public long getDroppedLines() {
+        return droppedLines;
+    }
+
+}
\ No newline at end of file
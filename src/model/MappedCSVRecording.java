@@ -0,0 +1,223 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Recording read lazily from a memory-mapped CSV file.<br>
+ * When the file is opened, it is scanned once to build an index of the
+ * offsets of the lines. Then, a row is parsed only when one of its values is
+ * asked for. The last parsed row is kept, so reading all the columns of a row
+ * parses it only once.
+ * @author Loïc David
+ * @see CSVReader
+ * @see Recording
+ */
+public class MappedCSVRecording extends Recording {
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final MappedByteBuffer[] segments;
+    private final long fileSize;
+    private long[] offsets = new long[1024];
+    private int size = 0;
+    private final int nbColumns;
+    private final double[] row;
+    private int rowIndex = -1;
+    private byte[] line = new byte[256];
+
+    /**
+     * Create a new instance of MappedCSVRecording.<br>
+     * Map the file and index its lines. The first line of the file is the
+     * header and is skipped.
+     * @param filePath CSV file to read.
+     * @param nbSensors Number of sensors of the shoe.
+     * @param nbMotors Number of motors of the shoe.
+     * @throws IOException The file cannot be mapped.
+     * @throws NumberFormatException The first row of the file cannot be
+     * parsed.
+     * @see MappedCSVRecording
+     */
+    public MappedCSVRecording(String filePath, int nbSensors, int nbMotors) throws IOException, NumberFormatException {
+        super(nbSensors, nbMotors);
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            fileSize = channel.size();
+            segments = new MappedByteBuffer[(int)(fileSize >>> SEGMENT_SHIFT) + 1];
+            for (int k = 0; k < segments.length; k++) {
+                long position = (long)k << SEGMENT_SHIFT;
+                segments[k] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_MASK + 1, fileSize - position));
+            }
+        }
+        buildIndex();
+        nbColumns = size > 0 ? countColumns(0) : 1;
+        row = new double[nbColumns];
+        if (size > 0) {
+            parseRow(0);
+        }
+    }
+
+    /**
+     * Scan the file and store the offset of the beginning of each non-empty
+     * line (header excepted).
+     */
+    private void buildIndex() {
+        byte[] chunk = new byte[1 << 16];
+        boolean header = true;
+        long lineStart = 0;
+        for (int k = 0; k < segments.length; k++) {
+            ByteBuffer segment = segments[k].duplicate();
+            long base = (long)k << SEGMENT_SHIFT;
+            int position = 0;
+            while (position < segment.limit()) {
+                int len = Math.min(chunk.length, segment.limit() - position);
+                segment.position(position);
+                segment.get(chunk, 0, len);
+                for (int b = 0; b < len; b++) {
+                    if (chunk[b] == '\n') {
+                        long lineEnd = base + position + b;
+                        if (header) {
+                            header = false;
+                        }
+                        else if (!isEmpty(lineStart, lineEnd)) {
+                            addOffset(lineStart);
+                        }
+                        lineStart = lineEnd + 1;
+                    }
+                }
+                position += len;
+            }
+        }
+        if (!header && !isEmpty(lineStart, fileSize)) {
+            addOffset(lineStart);
+        }
+        long[] trimmed = new long[size];
+        System.arraycopy(offsets, 0, trimmed, 0, size);
+        offsets = trimmed;
+    }
+
+    /**
+     * Add the offset of a line to the index.
+     * @param offset Offset of the first byte of the line.
+     */
+    private void addOffset(long offset) {
+        if (size == offsets.length) {
+            long[] grown = new long[2 * size];
+            System.arraycopy(offsets, 0, grown, 0, size);
+            offsets = grown;
+        }
+        offsets[size] = offset;
+        size++;
+    }
+
+    /**
+     * Check if a line is empty (a line containing only '\r' is empty).
+     * @param start Offset of the first byte of the line.
+     * @param end Offset of the end of the line (excluded).
+     * @return true if the line is empty, else false.
+     */
+    private boolean isEmpty(long start, long end) {
+        return end == start || (end == start + 1 && byteAt(start) == '\r');
+    }
+
+    /**
+     * Getter for a byte of the file.
+     * @param offset Offset of the byte.
+     * @return The byte.
+     */
+    private byte byteAt(long offset) {
+        return segments[(int)(offset >>> SEGMENT_SHIFT)].get((int)(offset & SEGMENT_MASK));
+    }
+
+    /**
+     * Getter for the offset of the end of the ith line (excluded).
+     * @param i Index of the line.
+     * @return The offset of the end of the line.
+     */
+    private long lineEnd(int i) {
+        long end = i + 1 < size ? offsets[i + 1] : fileSize;
+        while (end > offsets[i] && (byteAt(end - 1) == '\n' || byteAt(end - 1) == '\r')) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Count the fields of the ith line.
+     * @param i Index of the line.
+     * @return The number of fields of the line.
+     */
+    private int countColumns(int i) {
+        long end = lineEnd(i);
+        int count = 1;
+        for (long p = offsets[i]; p < end; p++) {
+            if (byteAt(p) == ';') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Parse the ith row and keep it as the current row.
+     * @param i Index of the row.
+     * @throws NumberFormatException The row cannot be parsed.
+     */
+    private void parseRow(int i) throws NumberFormatException {
+        long start = offsets[i];
+        int length = (int)(lineEnd(i) - start);
+        if (length > line.length) {
+            line = new byte[Math.max(length, 2 * line.length)];
+        }
+        for (int b = 0; b < length; b++) {
+            line[b] = byteAt(start + b);
+        }
+        if (FrameParser.parse(line, 0, length, row) != nbColumns) {
+            throw new NumberFormatException("Missing values in row " + i);
+        }
+        rowIndex = i;
+    }
+
+    /**
+     * Make the ith row the current row, parsing it if needed.
+     * @param i Index of the row.
+     * @throws NumberFormatException The row cannot be parsed.
+     */
+    private void selectRow(int i) throws NumberFormatException {
+        if (i >= size || i < 0) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        if (i != rowIndex) {
+            rowIndex = -1;
+            parseRow(i);
+        }
+    }
+
+    @Override
+    public double get(int i, int column) throws NumberFormatException {
+        selectRow(i);
+        return row[column];
+    }
+
+    @Override
+    public void getRow(int i, double[] row) throws NumberFormatException {
+        selectRow(i);
+        System.arraycopy(this.row, 0, row, 0, nbColumns);
+    }
+
+    @Override
+    public int getNbColumns() {
+        return nbColumns;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+}
\ No newline at end of file
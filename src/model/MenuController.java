@@ -26,6 +26,15 @@ import view.mainwindow.MenuView;
  */
 public class MenuController {
 
+    /**
+     * Extension of the binary recording files.
+     */
+    public static final String BINARY_EXTENSION = ".vsb";
+    /**
+     * Extension of the compressed recording files.
+     */
+    public static final String COMPRESSED_EXTENSION = ".vsz";
+
     private final TimeController timeController;
     private final Shoe leftShoe;
     private final Shoe rightShoe;
@@ -94,18 +103,47 @@ public class MenuController {
     /**
      * Save the last recorded data from the serial in the specified files.<br>
      * When serial data are read, they are automatically written in save files.
-     * This method just copies these files into the files specified by the user.
-     * @param leftPath CSV output file for the left shoe.
-     * @param rightPath CSV output file for the right shoe.
+     * If a specified file is a CSV file, this method just copies the save file
+     * into it. If it is a binary recording file (.vsb) or a compressed
+     * recording file (.vsz), the save file is read and written in this format.
+     * @param leftPath CSV, binary or compressed output file for the left shoe.
+     * @param rightPath CSV, binary or compressed output file for the right
+     * shoe.
      * @throws IOException The data cannot be saved.
+     * @see BinaryRecording
+     * @see CompressedRecording
      */
     public void saveData(String leftPath, String rightPath) throws IOException {
-        File leftSource = new File("././ressources/savedataleft.csv");
-        File rightSource = new File("././ressources/savedataright.csv");
-        File leftDest = new File(leftPath);
-        File rightDest = new File(rightPath);
-        Files.copy(leftSource.toPath(), leftDest.toPath(), StandardCopyOption.REPLACE_EXISTING);
-        Files.copy(rightSource.toPath(), rightDest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        saveData(leftShoe, leftPath);
+        saveData(rightShoe, rightPath);
+    }
+    
+    /**
+     * Save the last recorded data from the serial for one Shoe.
+     * @param shoe The Shoe whose data are saved.
+     * @param path CSV, binary or compressed output file.
+     * @throws IOException The data cannot be saved.
+     */
+    private void saveData(Shoe shoe, String path) throws IOException {
+        File source = new File("././ressources/savedata" + shoe.getSide().toString() + ".csv");
+        File dest = new File(path);
+        if (path.toLowerCase().endsWith(BINARY_EXTENSION)) {
+            try {
+                BinaryRecording.write(shoe.getCsvReader().readFile(source.getPath()), shoe, path);
+            } catch (CSVFileException ex) {
+                throw new IOException(ex);
+            }
+        }
+        else if (path.toLowerCase().endsWith(COMPRESSED_EXTENSION)) {
+            try {
+                CompressedRecording.write(shoe.getCsvReader().readFile(source.getPath()), shoe, path);
+            } catch (CSVFileException ex) {
+                throw new IOException(ex);
+            }
+        }
+        else {
+            Files.copy(source.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
     }
     
     /**
@@ -0,0 +1,188 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+
+/**
+ * Measures of the software (shared by all its parts).<br>
+ * Three kinds of metrics are registered by name: Counters (number of
+ * events, bytes...), gauges (values read when they are displayed, like the
+ * size of a queue) and LatencyHistograms (durations, in microseconds). The
+ * names are of the form "stage.shoe.measure" (for example
+ * "serial.left.bytes"), so the metrics of a stage are displayed together.
+ * <br>
+ * The Counters and the LatencyHistograms don't use any lock, so the metrics
+ * are always collected.
+ * @author Loïc David
+ * @see LatencyHistogram
+ */
+public class Metrics {
+
+    private static final Metrics INSTANCE = new Metrics();
+    private final ConcurrentSkipListMap<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+
+    /**
+     * Create a new instance of Metrics.
+     * @see Metrics
+     */
+    private Metrics() {
+    }
+
+    /**
+     * Getter for the Metrics of the software.
+     * @return The Metrics.
+     */
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Number of events, which can be increased by any thread.
+     */
+    public static class Counter {
+
+        private final LongAdder value = new LongAdder();
+
+        /**
+         * Add 1 to the Counter.
+         */
+        public void increment() {
+            value.increment();
+        }
+
+        /**
+         * Add a number to the Counter.
+         * @param n The number.
+         */
+        public void add(long n) {
+            value.add(n);
+        }
+
+        /**
+         * Getter for the value of the Counter.
+         * @return The value.
+         */
+        public long get() {
+            return value.sum();
+        }
+
+        /**
+         * Set the Counter to 0.
+         */
+        public void reset() {
+            value.reset();
+        }
+    }
+
+    /**
+     * Get a Counter, created if needed.
+     * @param name The name of the Counter.
+     * @return The Counter.
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Get a LatencyHistogram, created if needed.
+     * @param name The name of the LatencyHistogram.
+     * @return The LatencyHistogram.
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Register a gauge. A gauge with the same name is replaced.
+     * @param name The name of the gauge.
+     * @param gauge The function giving the value of the gauge (called by the
+     * JavaFX thread).
+     */
+    public void gauge(String name, LongSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Set all the Counters and the LatencyHistograms to 0.
+     */
+    public void reset() {
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Write the values of all the metrics in a text.
+     * @return The text (one metric per line).
+     */
+    public String report() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Long> entry : values().entrySet()) {
+            text.append(String.format(Locale.ROOT, "%-32s %d%n", entry.getKey(), entry.getValue()));
+        }
+        text.append(String.format(Locale.ROOT, "%n%-32s %8s %8s %8s %8s %8s %8s%n", "histogram (us)", "count", "mean", "p50", "p99", "p99.9", "max"));
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            text.append(String.format(Locale.ROOT, "%-32s %8d %8.1f %8d %8d %8d %8d%n", entry.getKey(), histogram.getCount(),
+                    histogram.getMean(), histogram.getPercentile(50), histogram.getPercentile(99),
+                    histogram.getPercentile(99.9), histogram.getMax()));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Read the values of the Counters and of the gauges.
+     * @return The values, sorted by name.
+     */
+    private TreeMap<String, Long> values() {
+        TreeMap<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().get());
+        }
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            try {
+                values.put(entry.getKey(), entry.getValue().getAsLong());
+            } catch (RuntimeException e) {
+                // The measured object may be changing (new reading...).
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Write the values of all the metrics in a CSV file: name, count (or
+     * value), mean, percentiles 50, 90, 99 and 99.9, maximum.
+     * @param filePath The CSV file.
+     * @throws IOException The file cannot be written.
+     */
+    public void export(String filePath) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filePath), StandardCharsets.US_ASCII))) {
+            writer.write("name;count;mean;p50;p90;p99;p99.9;max\n");
+            for (Map.Entry<String, Long> entry : values().entrySet()) {
+                writer.write(entry.getKey() + ";" + entry.getValue() + ";;;;;;\n");
+            }
+            for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+                LatencyHistogram histogram = entry.getValue();
+                writer.write(String.format(Locale.ROOT, "%s;%d;%.1f;%d;%d;%d;%d;%d\n", entry.getKey(), histogram.getCount(),
+                        histogram.getMean(), histogram.getPercentile(50), histogram.getPercentile(90),
+                        histogram.getPercentile(99), histogram.getPercentile(99.9), histogram.getMax()));
+            }
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,214 @@
+package model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Send the values of the motors to the shoe.<br>
+ * Each Frame submitted is encoded into a command and written on the serial
+ * port by a dedicated thread, so the processing of the next frames never
+ * waits for the serial port. If several Frames are submitted while a
+ * command is being written, only the newest one is sent: the motors always
+ * receive the most recent values.<br>
+ * A command is: 0xA5, number of motors (1 byte), intensity of each motor
+ * (1 byte, 0 for 0 and 255 for 1), latency between the arrival of the line
+ * of the sensors and the writing of the command (2 bytes, in microseconds,
+ * little-endian, 65535 if greater) and checksum (1 byte, XOR of all the
+ * previous bytes).<br>
+ * The command is encoded in a buffer allocated once. The stream can be the
+ * stream of the serial port or any other stream (a pipe for testing).
+ * @author Loïc David
+ * @see SerialReader
+ * @see Frame
+ */
+public class MotorCommandWriter {
+
+    /**
+     * First byte of a command.
+     */
+    public static final int HEADER = 0xA5;
+    /**
+     * Maximum number of motors in a command.
+     */
+    public static final int MAX_MOTORS = 255;
+    private static final int MAX_LATENCY = 0xFFFF;
+    private static final long STOP_TIMEOUT = 500;
+    private final OutputStream output;
+    private final byte[] command = new byte[MAX_MOTORS + 5];
+    private final AtomicReference<Frame> slot = new AtomicReference<>();
+    private final Writer writer = new Writer();
+    private volatile boolean running = true;
+    private volatile long sentCommands = 0;
+    private volatile long skippedFrames = 0;
+    private volatile long lastLatency = 0;
+    private volatile long maxLatency = 0;
+    private volatile IOException error;
+
+    /**
+     * Create a new instance of MotorCommandWriter.
+     * @param output The stream receiving the commands.
+     * @see MotorCommandWriter
+     */
+    public MotorCommandWriter(OutputStream output) {
+        this.output = output;
+        // A thread blocked on the serial port mustn't prevent the
+        // application from exiting.
+        writer.setDaemon(true);
+    }
+
+    /**
+     * Start the writing thread.
+     */
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * Stop the writing thread and wait for its end. The Frame not sent yet is
+     * dropped.<br>
+     * The wait lasts at most STOP_TIMEOUT milliseconds (this method is called
+     * by the JavaFX thread): if the thread is still blocked on the stream, it
+     * is interrupted and ends when the write returns, without sending any
+     * other command.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(STOP_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            writer.interrupt();
+        }
+    }
+
+    /**
+     * Submit a Frame whose motors must be sent (any thread). If the previous
+     * Frame hasn't been sent yet, it is replaced by this one.
+     * @param frame The Frame.
+     */
+    public void submit(Frame frame) {
+        if (slot.getAndSet(frame) != null) {
+            skippedFrames++;
+        }
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Class which writes the commands.
+     */
+    private class Writer extends Thread {
+
+        /**
+         * Program executed when the thread is started.<br>
+         * Wait for a Frame, encode it and write it.
+         */
+        @Override
+        public void run() {
+            while (running) {
+                Frame frame = slot.getAndSet(null);
+                if (frame == null) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                int length = encode(frame);
+                try {
+                    output.write(command, 0, length);
+                    output.flush();
+                    sentCommands++;
+                } catch (IOException e) {
+                    error = e;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Encode a Frame into a command.
+     * @param frame The Frame.
+     * @return The length of the command.
+     */
+    private int encode(Frame frame) {
+        int nbMotors = Math.min(frame.getNbMotors(), MAX_MOTORS);
+        int length = 0;
+        command[length++] = (byte)HEADER;
+        command[length++] = (byte)nbMotors;
+        for (int i = 0; i < nbMotors; i++) {
+            double value = frame.getMotor(i);
+            int intensity;
+            if (value >= 1) {
+                intensity = 255;
+            }
+            else if (value > 0) {
+                intensity = (int)Math.round(value * 255);
+            }
+            else {
+                // 0, negative or NaN.
+                intensity = 0;
+            }
+            command[length++] = (byte)intensity;
+        }
+        long latency = (System.nanoTime() - frame.getArrivalTime()) / 1000;
+        lastLatency = latency;
+        if (latency > maxLatency) {
+            maxLatency = latency;
+        }
+        int encodedLatency = (int)Math.max(0, Math.min(latency, MAX_LATENCY));
+        command[length++] = (byte)encodedLatency;
+        command[length++] = (byte)(encodedLatency >> 8);
+        byte checksum = 0;
+        for (int i = 0; i < length; i++) {
+            checksum ^= command[i];
+        }
+        command[length++] = checksum;
+        return length;
+    }
+
+    /**
+     * Getter for the number of commands sent.
+     * @return The number of commands sent.
+     */
+    public long getSentCommands() {
+        return sentCommands;
+    }
+
+    /**
+     * Getter for the number of Frames replaced by a newer one before being
+     * sent.
+     * @return The number of skipped Frames.
+     */
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+
+    /**
+     * Getter for the latency of the last command.
+     * @return The latency (in microseconds).
+     */
+    public long getLastLatency() {
+        return lastLatency;
+    }
+
+    /**
+     * Getter for the greatest latency since the start.
+     * @return The latency (in microseconds).
+     */
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    /**
+     * Getter for the error which stopped the writing thread.
+     * @return The error, or null if there was no error.
+     */
+    public IOException getError() {
+        return error;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,579 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+
+
+/**
+ * Rules giving the values of the motors from the data of the sensors.<br>
+ * The rules are read in the setting file
+ * (ressources/motorrules[left or right].txt): each line is the expression of
+ * one motor, in the order of the motors (the lines starting with '#' are
+ * comments, the motors without line are always 0). An expression can use:
+ * <ul>
+ * <li>numbers and the variables t (time), xcop, ycop, p1 to pN (pressures
+ * of the sensors) and v1 to vN (values of the sensors),</li>
+ * <li>the operators + - * / and parentheses,</li>
+ * <li>the comparisons &lt; &lt;= &gt; &gt;= == != and the logical operators
+ * &amp;&amp; || ! (true is 1 and false is 0),</li>
+ * <li>the condition "a ? b : c",</li>
+ * <li>the functions min(a, b), max(a, b) and abs(a).</li>
+ * </ul>
+ * For example, "ycop &gt;= -80 ? 1 : 0" or "min(1, (p1 + p2) / 1000)".<br>
+ * Each expression is compiled once into a flat program for a stack machine.
+ * Evaluating the motors then only reads arrays allocated when the rules are
+ * loaded: nothing is allocated or parsed for each frame. An instance must
+ * be used by only one thread at a time.
+ * @author Loïc David
+ * @see FrameProcessor
+ * @see Motor
+ */
+public class MotorRules {
+
+    private static final int PUSH = 0;
+    private static final int LOAD = 1;
+    private static final int ADD = 2;
+    private static final int SUB = 3;
+    private static final int MUL = 4;
+    private static final int DIV = 5;
+    private static final int NEG = 6;
+    private static final int NOT = 7;
+    private static final int LT = 8;
+    private static final int LE = 9;
+    private static final int GT = 10;
+    private static final int GE = 11;
+    private static final int EQ = 12;
+    private static final int NE = 13;
+    private static final int AND = 14;
+    private static final int OR = 15;
+    private static final int SELECT = 16;
+    private static final int MIN = 17;
+    private static final int MAX = 18;
+    private static final int ABS = 19;
+    private static final int TIME = 0;
+    private static final int XCOP = 1;
+    private static final int YCOP = 2;
+    private static final int PRESSURES = 3;
+
+    private final int nbSensors;
+    private final int[][] programs;
+    private final double[][] constants;
+    private final double[] variables;
+    private final double[] stack;
+
+    /**
+     * Create a new instance of MotorRules by loading the rules of a shoe.
+     * @param shoe The shoe.
+     * @throws IOException The rules cannot be loaded.
+     * @throws NumberFormatException A rule cannot be compiled.
+     * @see MotorRules
+     */
+    public MotorRules(Shoe shoe) throws IOException, NumberFormatException {
+        this(readRules("././ressources/motorrules" + shoe.getSide().toString() + ".txt"), shoe.getSensors().size(), shoe.getMotors().size());
+    }
+
+    /**
+     * Create a new instance of MotorRules by compiling expressions.
+     * @param rules The expressions of the motors.
+     * @param nbSensors Number of sensors of the shoe.
+     * @param nbMotors Number of motors of the shoe.
+     * @throws NumberFormatException A rule cannot be compiled.
+     * @see MotorRules
+     */
+    public MotorRules(ArrayList<String> rules, int nbSensors, int nbMotors) throws NumberFormatException {
+        this.nbSensors = nbSensors;
+        programs = new int[nbMotors][];
+        constants = new double[nbMotors][];
+        int stackSize = 1;
+        for (int i = 0; i < nbMotors; i++) {
+            Compiler compiler = new Compiler(i < rules.size() ? rules.get(i) : "0");
+            compiler.compile();
+            programs[i] = compiler.getCode();
+            constants[i] = compiler.getConstants();
+            stackSize = Math.max(stackSize, compiler.maxDepth);
+        }
+        variables = new double[PRESSURES + 2 * nbSensors];
+        stack = new double[stackSize];
+    }
+
+    /**
+     * Read the rules in a setting file.
+     * @param path The setting file.
+     * @return The expressions of the motors.
+     * @throws IOException The file cannot be read.
+     */
+    private static ArrayList<String> readRules(String path) throws IOException {
+        ArrayList<String> rules = new ArrayList<>();
+        InputStream flux = new FileInputStream(path);
+        InputStreamReader input = new InputStreamReader(flux);
+        BufferedReader buff = new BufferedReader(input);
+        String line;
+        while ((line = buff.readLine()) != null) {
+            if (!line.trim().startsWith("#")) {
+                rules.add(line.trim().isEmpty() ? "0" : line);
+            }
+        }
+        buff.close();
+        input.close();
+        flux.close();
+        return rules;
+    }
+
+    /**
+     * Compute the values of the motors.
+     * @param time Time (in second).
+     * @param values Values of the sensors.
+     * @param pressures Pressures of the sensors.
+     * @param xCop X coordinate of the CoP.
+     * @param yCop Y coordinate of the CoP.
+     * @param motors Array receiving the values of the motors.
+     */
+    public void evaluate(double time, double[] values, double[] pressures, double xCop, double yCop, double[] motors) {
+        variables[TIME] = time;
+        variables[XCOP] = xCop;
+        variables[YCOP] = yCop;
+        System.arraycopy(pressures, 0, variables, PRESSURES, Math.min(nbSensors, pressures.length));
+        System.arraycopy(values, 0, variables, PRESSURES + nbSensors, Math.min(nbSensors, values.length));
+        int nbMotors = Math.min(programs.length, motors.length);
+        for (int i = 0; i < nbMotors; i++) {
+            motors[i] = run(programs[i], constants[i]);
+        }
+    }
+
+    /**
+     * Run the program of a motor.
+     * @param code The instructions of the program.
+     * @param values The constants of the program.
+     * @return The value of the motor.
+     */
+    private double run(int[] code, double[] values) {
+        double[] s = stack;
+        int top = -1;
+        int pc = 0;
+        while (pc < code.length) {
+            switch (code[pc]) {
+                case PUSH:
+                    s[++top] = values[code[pc + 1]];
+                    pc += 2;
+                    continue;
+                case LOAD:
+                    s[++top] = variables[code[pc + 1]];
+                    pc += 2;
+                    continue;
+                case ADD:
+                    s[top - 1] = s[top - 1] + s[top];
+                    top--;
+                    break;
+                case SUB:
+                    s[top - 1] = s[top - 1] - s[top];
+                    top--;
+                    break;
+                case MUL:
+                    s[top - 1] = s[top - 1] * s[top];
+                    top--;
+                    break;
+                case DIV:
+                    s[top - 1] = s[top - 1] / s[top];
+                    top--;
+                    break;
+                case NEG:
+                    s[top] = -s[top];
+                    break;
+                case NOT:
+                    s[top] = s[top] == 0 ? 1 : 0;
+                    break;
+                case LT:
+                    s[top - 1] = s[top - 1] < s[top] ? 1 : 0;
+                    top--;
+                    break;
+                case LE:
+                    s[top - 1] = s[top - 1] <= s[top] ? 1 : 0;
+                    top--;
+                    break;
+                case GT:
+                    s[top - 1] = s[top - 1] > s[top] ? 1 : 0;
+                    top--;
+                    break;
+                case GE:
+                    s[top - 1] = s[top - 1] >= s[top] ? 1 : 0;
+                    top--;
+                    break;
+                case EQ:
+                    s[top - 1] = s[top - 1] == s[top] ? 1 : 0;
+                    top--;
+                    break;
+                case NE:
+                    s[top - 1] = s[top - 1] != s[top] ? 1 : 0;
+                    top--;
+                    break;
+                case AND:
+                    s[top - 1] = s[top - 1] != 0 && s[top] != 0 ? 1 : 0;
+                    top--;
+                    break;
+                case OR:
+                    s[top - 1] = s[top - 1] != 0 || s[top] != 0 ? 1 : 0;
+                    top--;
+                    break;
+                case SELECT:
+                    s[top - 2] = s[top - 2] != 0 ? s[top - 1] : s[top];
+                    top -= 2;
+                    break;
+                case MIN:
+                    s[top - 1] = Math.min(s[top - 1], s[top]);
+                    top--;
+                    break;
+                case MAX:
+                    s[top - 1] = Math.max(s[top - 1], s[top]);
+                    top--;
+                    break;
+                case ABS:
+                    s[top] = Math.abs(s[top]);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown instruction " + code[pc]);
+            }
+            pc++;
+        }
+        return s[0];
+    }
+
+    /**
+     * Compiler of an expression into a program for the stack machine
+     * (recursive descent parser writing the instructions in postfix order).
+     */
+    private class Compiler {
+
+        private final String text;
+        private int position = 0;
+        private final ArrayList<Integer> code = new ArrayList<>();
+        private final ArrayList<Double> values = new ArrayList<>();
+        private int depth = 0;
+        private int maxDepth = 0;
+
+        /**
+         * Create a new instance of Compiler.
+         * @param text The expression.
+         */
+        Compiler(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Compile the whole expression.
+         * @throws NumberFormatException The expression is not valid.
+         */
+        void compile() throws NumberFormatException {
+            parseCondition();
+            skipSpaces();
+            if (position < text.length()) {
+                throw error("Unexpected character");
+            }
+        }
+
+        /**
+         * Getter for the instructions of the program.
+         * @return The instructions.
+         */
+        int[] getCode() {
+            int[] result = new int[code.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = code.get(i);
+            }
+            return result;
+        }
+
+        /**
+         * Getter for the constants of the program.
+         * @return The constants.
+         */
+        double[] getConstants() {
+            double[] result = new double[values.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = values.get(i);
+            }
+            return result;
+        }
+
+        /**
+         * Parse "or [? condition : condition]".
+         */
+        private void parseCondition() {
+            parseOr();
+            if (accept("?")) {
+                parseCondition();
+                expect(":");
+                parseCondition();
+                emit(SELECT, -2);
+            }
+        }
+
+        /**
+         * Parse "and [|| and]...".
+         */
+        private void parseOr() {
+            parseAnd();
+            while (accept("||")) {
+                parseAnd();
+                emit(OR, -1);
+            }
+        }
+
+        /**
+         * Parse "comparison [&amp;&amp; comparison]...".
+         */
+        private void parseAnd() {
+            parseComparison();
+            while (accept("&&")) {
+                parseComparison();
+                emit(AND, -1);
+            }
+        }
+
+        /**
+         * Parse "sum [operator sum]" where the operator is a comparison.
+         */
+        private void parseComparison() {
+            parseSum();
+            int op;
+            if (accept("<=")) {
+                op = LE;
+            }
+            else if (accept(">=")) {
+                op = GE;
+            }
+            else if (accept("==")) {
+                op = EQ;
+            }
+            else if (accept("!=")) {
+                op = NE;
+            }
+            else if (accept("<")) {
+                op = LT;
+            }
+            else if (accept(">")) {
+                op = GT;
+            }
+            else {
+                return;
+            }
+            parseSum();
+            emit(op, -1);
+        }
+
+        /**
+         * Parse "product [+|- product]...".
+         */
+        private void parseSum() {
+            parseProduct();
+            while (true) {
+                if (accept("+")) {
+                    parseProduct();
+                    emit(ADD, -1);
+                }
+                else if (accept("-")) {
+                    parseProduct();
+                    emit(SUB, -1);
+                }
+                else {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Parse "unary [*|/ unary]...".
+         */
+        private void parseProduct() {
+            parseUnary();
+            while (true) {
+                if (accept("*")) {
+                    parseUnary();
+                    emit(MUL, -1);
+                }
+                else if (accept("/")) {
+                    parseUnary();
+                    emit(DIV, -1);
+                }
+                else {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Parse "[-|!] unary" or a primary expression.
+         */
+        private void parseUnary() {
+            if (accept("-")) {
+                parseUnary();
+                emit(NEG, 0);
+            }
+            else if (accept("!")) {
+                parseUnary();
+                emit(NOT, 0);
+            }
+            else if (accept("+")) {
+                parseUnary();
+            }
+            else {
+                parsePrimary();
+            }
+        }
+
+        /**
+         * Parse a number, a variable, a function or an expression between
+         * parentheses.
+         */
+        private void parsePrimary() {
+            skipSpaces();
+            if (accept("(")) {
+                parseCondition();
+                expect(")");
+                return;
+            }
+            int start = position;
+            if (position < text.length() && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+                while (position < text.length() && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+                    position++;
+                }
+                if (position < text.length() && (text.charAt(position) == 'e' || text.charAt(position) == 'E')) {
+                    position++;
+                    if (position < text.length() && (text.charAt(position) == '-' || text.charAt(position) == '+')) {
+                        position++;
+                    }
+                    while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                        position++;
+                    }
+                }
+                values.add(Double.parseDouble(text.substring(start, position)));
+                code.add(PUSH);
+                code.add(values.size() - 1);
+                push(1);
+                return;
+            }
+            while (position < text.length() && Character.isLetterOrDigit(text.charAt(position))) {
+                position++;
+            }
+            String name = text.substring(start, position).toLowerCase();
+            if (name.isEmpty()) {
+                throw error("Value expected");
+            }
+            if (name.equals("min") || name.equals("max")) {
+                expect("(");
+                parseCondition();
+                expect(",");
+                parseCondition();
+                expect(")");
+                emit(name.equals("min") ? MIN : MAX, -1);
+                return;
+            }
+            if (name.equals("abs")) {
+                expect("(");
+                parseCondition();
+                expect(")");
+                emit(ABS, 0);
+                return;
+            }
+            code.add(LOAD);
+            code.add(variable(name));
+            push(1);
+        }
+
+        /**
+         * Getter for the index of a variable.
+         * @param name Name of the variable.
+         * @return The index of the variable in the array of the variables.
+         */
+        private int variable(String name) {
+            if (name.equals("t")) {
+                return TIME;
+            }
+            if (name.equals("xcop")) {
+                return XCOP;
+            }
+            if (name.equals("ycop")) {
+                return YCOP;
+            }
+            if (name.length() > 1 && (name.charAt(0) == 'p' || name.charAt(0) == 'v')) {
+                int sensor;
+                try {
+                    sensor = Integer.parseInt(name.substring(1));
+                } catch (NumberFormatException ex) {
+                    throw error("Unknown variable " + name);
+                }
+                if (sensor < 1 || sensor > nbSensors) {
+                    throw error("Unknown sensor " + name);
+                }
+                return (name.charAt(0) == 'p' ? PRESSURES : PRESSURES + nbSensors) + sensor - 1;
+            }
+            throw error("Unknown variable " + name);
+        }
+
+        /**
+         * Add an instruction without operand.
+         * @param op The instruction.
+         * @param change Change of the size of the stack.
+         */
+        private void emit(int op, int change) {
+            code.add(op);
+            push(change);
+        }
+
+        /**
+         * Follow the size of the stack.
+         * @param change Change of the size of the stack.
+         */
+        private void push(int change) {
+            depth += change;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        /**
+         * Skip the spaces.
+         */
+        private void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        /**
+         * Skip a symbol if it is the next one.
+         * @param symbol The symbol.
+         * @return true if the symbol has been skipped, else false.
+         */
+        private boolean accept(String symbol) {
+            skipSpaces();
+            if (text.startsWith(symbol, position)) {
+                position += symbol.length();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Skip a symbol which must be the next one.
+         * @param symbol The symbol.
+         * @throws NumberFormatException The symbol is not the next one.
+         */
+        private void expect(String symbol) throws NumberFormatException {
+            if (!accept(symbol)) {
+                throw error("'" + symbol + "' expected");
+            }
+        }
+
+        /**
+         * Create the exception describing an error in the expression.
+         * @param message The error.
+         * @return The exception.
+         */
+        private NumberFormatException error(String message) {
+            return new NumberFormatException(message + " at position " + position + " in \"" + text + "\"");
+        }
+    }
+
+}
\ No newline at end of file
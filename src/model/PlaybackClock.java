@@ -0,0 +1,104 @@
+package model;
+
+
+/**
+ * Clock giving the index of the data to display during the playback of the
+ * CSV files.<br>
+ * The index is computed from the time elapsed since the start of the
+ * playback (System.nanoTime()), the time step of the data and the speed,
+ * instead of being incremented after each wait: the errors don't add up, the
+ * playback doesn't depend on the time needed to display the data and any
+ * step can be used. If the display is slower than the data, some indexes are
+ * skipped.<br>
+ * The position is kept as a real number, so changing the speed doesn't lose
+ * the fraction of step already elapsed.
+ * @author Loïc David
+ * @see TimeController
+ */
+public class PlaybackClock {
+
+    private static final double EPSILON = 1e-9;
+    private double step = 1;
+    private double speed = 1;
+    private double startPosition = 0;
+    private long startNanos = 0;
+    private boolean running = false;
+
+    /**
+     * Setter for the time step of the data.
+     * @param step The time between two data (in second).
+     */
+    public void setStep(double step) {
+        this.step = step;
+    }
+
+    /**
+     * Start the clock.
+     * @param index The index displayed at the start.
+     * @param now The current time (System.nanoTime()).
+     */
+    public void start(int index, long now) {
+        startPosition = index;
+        startNanos = now;
+        running = true;
+    }
+
+    /**
+     * Stop the clock.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Getter for the state of the clock.
+     * @return true if the clock is running.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Setter for the speed of the playback. If the clock is running, the
+     * current position is kept.
+     * @param speed The speed (1 for the real time).
+     * @param now The current time (System.nanoTime()).
+     */
+    public void setSpeed(double speed, long now) {
+        if (running) {
+            startPosition = getPosition(now);
+            startNanos = now;
+        }
+        this.speed = speed;
+    }
+
+    /**
+     * Getter for the speed of the playback.
+     * @return The speed (1 for the real time).
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Getter for the position of the playback.
+     * @param now The current time (System.nanoTime()).
+     * @return The position, in number of data (real number).
+     */
+    public double getPosition(long now) {
+        if (!running || step <= 0) {
+            return startPosition;
+        }
+        return startPosition + (now - startNanos) * 1e-9 * speed / step;
+    }
+
+    /**
+     * Getter for the index of the data to display.
+     * @param now The current time (System.nanoTime()).
+     * @return The index (not limited to the size of the data).
+     */
+    public int getIndex(long now) {
+        return (int)Math.floor(getPosition(now) + EPSILON);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+
+
+/**
+ * Conversion of the values of the sensors into pressures.<br>
+ * The calibration curve is read in the setting file
+ * (ressources/calibration.txt). Its first line is the number of possible raw
+ * values of the sensors (1024 for a 10 bits converter). Each following line
+ * is a piece of the curve: "sensor threshold a3 a2 a1 a0", meaning that
+ * pressure = a3 * v^3 + a2 * v^2 + a1 * v + a0 when the value v is greater
+ * than the threshold (the piece with the highest threshold below the value is
+ * used, and the pressure is 0 below all the thresholds). The sensor 0 gives
+ * the curve of all the sensors which don't have their own curve.<br>
+ * The pressure of each possible raw value is computed once and stored in a
+ * table per sensor, so a conversion is a single array access. The values
+ * which are not in the table (not integer or out of range) are computed.
+ * @author Loïc David
+ * @see FrameProcessor
+ */
+public class PressureCalibration {
+
+    private final int nbValues;
+    private final Curve[] curves;
+    private final double[][] tables;
+
+    /**
+     * Create a new instance of PressureCalibration.
+     * @param nbSensors Number of sensors of the shoe.
+     * @throws IOException The calibration cannot be loaded.
+     * @throws NumberFormatException Issue to convert data from the setting
+     * file.
+     * @see PressureCalibration
+     */
+    public PressureCalibration(int nbSensors) throws IOException, NumberFormatException {
+        InputStream flux;
+        flux = new FileInputStream("././ressources/calibration.txt");
+        InputStreamReader inputStreamReader = new InputStreamReader(flux);
+        BufferedReader buff = new BufferedReader(inputStreamReader);
+        String line;
+        nbValues = Integer.parseInt(buff.readLine().trim());
+        if (nbValues < 0) {
+            throw new NumberFormatException("Wrong number of values");
+        }
+        ArrayList<ArrayList<double[]>> pieces = new ArrayList<>();
+        for (int i = 0; i <= nbSensors; i++) {
+            pieces.add(new ArrayList<>());
+        }
+        while ((line = buff.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length != 6) {
+                throw new NumberFormatException("Wrong calibration line: " + line);
+            }
+            int sensor = Integer.parseInt(fields[0]);
+            double[] piece = new double[5];
+            for (int k = 0; k < 5; k++) {
+                piece[k] = Double.parseDouble(fields[k + 1]);
+            }
+            // Curves of sensors which don't exist are ignored.
+            if (sensor >= 0 && sensor <= nbSensors) {
+                pieces.get(sensor).add(piece);
+            }
+        }
+        buff.close();
+        inputStreamReader.close();
+        flux.close();
+        Curve defaultCurve = new Curve(pieces.get(0));
+        double[] defaultTable = defaultCurve.tabulate(nbValues);
+        curves = new Curve[nbSensors];
+        tables = new double[nbSensors][];
+        for (int i = 0; i < nbSensors; i++) {
+            if (pieces.get(i + 1).isEmpty()) {
+                curves[i] = defaultCurve;
+                tables[i] = defaultTable;
+            }
+            else {
+                curves[i] = new Curve(pieces.get(i + 1));
+                tables[i] = curves[i].tabulate(nbValues);
+            }
+        }
+    }
+
+    /**
+     * Piecewise polynomial curve of a sensor.
+     */
+    private static class Curve {
+
+        private final double[] thresholds;
+        private final double[][] coefficients;
+
+        /**
+         * Create a new instance of Curve.
+         * @param pieces The pieces of the curve (threshold, a3, a2, a1, a0).
+         */
+        Curve(ArrayList<double[]> pieces) {
+            pieces.sort((p1, p2) -> Double.compare(p2[0], p1[0]));
+            thresholds = new double[pieces.size()];
+            coefficients = new double[pieces.size()][];
+            for (int k = 0; k < pieces.size(); k++) {
+                thresholds[k] = pieces.get(k)[0];
+                coefficients[k] = pieces.get(k);
+            }
+        }
+
+        /**
+         * Compute the pressure for a value.
+         * @param value The value of the sensor.
+         * @return The pressure (in mmHg).
+         */
+        double evaluate(double value) {
+            // The thresholds are sorted from the highest to the lowest.
+            for (int k = 0; k < thresholds.length; k++) {
+                if (value > thresholds[k]) {
+                    double[] c = coefficients[k];
+                    return c[1] * Math.pow(value, 3) + c[2] * Math.pow(value, 2) + c[3] * value + c[4];
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Compute the pressure of all the raw values.
+         * @param nbValues Number of raw values.
+         * @return The table of the pressures, indexed by raw value.
+         */
+        double[] tabulate(int nbValues) {
+            double[] table = new double[nbValues];
+            for (int v = 0; v < nbValues; v++) {
+                table[v] = evaluate(v);
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Convert the value of a sensor into a pressure.
+     * @param sensor Index of the sensor (starting at 0).
+     * @param value The value of the sensor.
+     * @return The pressure (in mmHg).
+     */
+    public double toPressure(int sensor, double value) {
+        int raw = (int)value;
+        if (raw == value && raw >= 0 && raw < nbValues) {
+            return tables[sensor][raw];
+        }
+        return curves[sensor].evaluate(value);
+    }
+
+    /**
+     * Getter for the number of sensors.
+     * @return The number of sensors.
+     */
+    public int getNbSensors() {
+        return curves.length;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,151 @@
+package model;
+
+
+/**
+ * Data of a recording, organised in rows and columns.<br>
+ * The columns are ordered like in the CSV files: time, values of the sensors,
+ * pressures of the sensors, values of the motors, X and Y coordinates of the
+ * CoP.<br>
+ * The subclasses only have to give access to the values, the accessors typed
+ * by column kind are defined here.
+ * @author Loïc David
+ * @see CSVReader
+ * @see ColumnStore
+ * @see MappedCSVRecording
+ */
+public abstract class Recording {
+
+    private final int nbSensors;
+    private final int nbMotors;
+
+    /**
+     * Create a new instance of Recording.
+     * @param nbSensors Number of sensors of the shoe.
+     * @param nbMotors Number of motors of the shoe.
+     * @see Recording
+     */
+    public Recording(int nbSensors, int nbMotors) {
+        this.nbSensors = nbSensors;
+        this.nbMotors = nbMotors;
+    }
+
+    /**
+     * Getter for a value of the recording.
+     * @param i Index of the row.
+     * @param column Index of the column.
+     * @return The value of the ith row in the column.
+     */
+    public abstract double get(int i, int column);
+
+    /**
+     * Getter for the number of columns.
+     * @return The number of columns.
+     */
+    public abstract int getNbColumns();
+
+    /**
+     * Getter for the number of rows.
+     * @return The number of rows.
+     */
+    public abstract int size();
+
+    /**
+     * Copy the ith row in an array.<br>
+     * By default, the values are read one by one with get. The recordings
+     * which store their data row by row (mapped CSV, binary and compressed
+     * files) override it, so the row is located (or decoded) only once
+     * instead of once per value.
+     * @param i Index of the row.
+     * @param row The array receiving the row (at least getNbColumns()
+     * values).
+     */
+    public void getRow(int i, double[] row) {
+        int nbColumns = getNbColumns();
+        for (int column = 0; column < nbColumns; column++) {
+            row[column] = get(i, column);
+        }
+    }
+
+    /**
+     * Release the resources used to read the recording. The recording cannot
+     * be read after this call.<br>
+     * By default, there is nothing to release (the memory-mapped files are
+     * released by the garbage collector).
+     */
+    public void close() {
+    }
+
+    /**
+     * Getter for the ith time.
+     * @param i Index of the row.
+     * @return The time of the ith row.
+     */
+    public double getTime(int i) {
+        return get(i, 0);
+    }
+
+    /**
+     * Getter for the ith value of the jth sensor.
+     * @param i Index of the row.
+     * @param j Index of the sensor (starting at 0).
+     * @return The ith value of the jth sensor.
+     */
+    public double getSensorValue(int i, int j) {
+        return get(i, 1 + j);
+    }
+
+    /**
+     * Getter for the ith pressure of the jth sensor.
+     * @param i Index of the row.
+     * @param j Index of the sensor (starting at 0).
+     * @return The ith pressure of the jth sensor.
+     */
+    public double getSensorPressure(int i, int j) {
+        return get(i, 1 + nbSensors + j);
+    }
+
+    /**
+     * Getter for the ith value of the jth motor.
+     * @param i Index of the row.
+     * @param j Index of the motor (starting at 0).
+     * @return The ith value of the jth motor.
+     */
+    public double getMotorValue(int i, int j) {
+        return get(i, 1 + 2 * nbSensors + j);
+    }
+
+    /**
+     * Getter for the ith X coordinate of the CoP.
+     * @param i Index of the row.
+     * @return The ith X coordinate of the CoP.
+     */
+    public double getXcop(int i) {
+        return get(i, 1 + 2 * nbSensors + nbMotors);
+    }
+
+    /**
+     * Getter for the ith Y coordinate of the CoP.
+     * @param i Index of the row.
+     * @return The ith Y coordinate of the CoP.
+     */
+    public double getYcop(int i) {
+        return get(i, 2 + 2 * nbSensors + nbMotors);
+    }
+
+    /**
+     * Getter for the number of sensors.
+     * @return The number of sensors.
+     */
+    public int getNbSensors() {
+        return nbSensors;
+    }
+
+    /**
+     * Getter for the number of motors.
+     * @return The number of motors.
+     */
+    public int getNbMotors() {
+        return nbMotors;
+    }
+
+}
\ No newline at end of file
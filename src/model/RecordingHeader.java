@@ -0,0 +1,280 @@
+package model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import model.Shoe.Side;
+
+
+/**
+ * Header of the binary and compressed recording files.<br>
+ * Contain the description of the shoe the data come from: side, number of
+ * sensors and motors, position and group of each sensor, sample rate and
+ * number of rows. It is written in little-endian at the beginning of the
+ * file:<br>
+ * magic (3 bytes), version (1 byte), side (1 byte), reserved (1 byte),
+ * number of sensors (2 bytes), number of motors (2 bytes), sample rate (float,
+ * in Hz), number of rows (long), then for each sensor: x (float), y (float),
+ * group (int).
+ * @author Loïc David
+ * @see BinaryRecording
+ * @see CompressedRecording
+ */
+public class RecordingHeader {
+
+    private static final byte[] MAGIC = {'V', 'S', 'B'};
+    private static final int FIXED_LENGTH = 22;
+    private static final int SENSOR_LENGTH = 12;
+    private final byte version;
+    private final Side side;
+    private final int nbSensors;
+    private final int nbMotors;
+    private final double sampleRate;
+    private final long nbRows;
+    private final double[] x;
+    private final double[] y;
+    private final int[] group;
+
+    /**
+     * Create a new instance of RecordingHeader describing a shoe.
+     * @param version Version of the format.
+     * @param shoe The shoe the data come from.
+     * @param sampleRate Sample rate of the data (in Hz).
+     * @param nbRows Number of rows of the data.
+     * @see RecordingHeader
+     */
+    public RecordingHeader(byte version, Shoe shoe, double sampleRate, long nbRows) {
+        this.version = version;
+        side = shoe.getSide();
+        nbSensors = shoe.getSensors().size();
+        nbMotors = shoe.getMotors().size();
+        this.sampleRate = sampleRate;
+        this.nbRows = nbRows;
+        x = new double[nbSensors];
+        y = new double[nbSensors];
+        group = new int[nbSensors];
+        for (int i = 0; i < nbSensors; i++) {
+            Sensor s = shoe.getSensors().get(i);
+            x[i] = s.getX();
+            y[i] = s.getY();
+            group[i] = s.getGroup();
+        }
+    }
+
+    /**
+     * Create a new instance of RecordingHeader from its fields.
+     * @see RecordingHeader
+     */
+    private RecordingHeader(byte version, Side side, int nbSensors, int nbMotors, double sampleRate, long nbRows, double[] x, double[] y, int[] group) {
+        this.version = version;
+        this.side = side;
+        this.nbSensors = nbSensors;
+        this.nbMotors = nbMotors;
+        this.sampleRate = sampleRate;
+        this.nbRows = nbRows;
+        this.x = x;
+        this.y = y;
+        this.group = group;
+    }
+
+    /**
+     * Check if a buffer starts with the magic of the binary recordings.
+     * @param buffer The buffer (its position is not modified).
+     * @return true if the buffer starts with the magic, else false.
+     */
+    public static boolean hasMagic(ByteBuffer buffer) {
+        if (buffer.remaining() < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(buffer.position() + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Getter for the version of the format of a binary recording.
+     * @param buffer Buffer containing the beginning of the file (its position
+     * is not modified).
+     * @return The version, or -1 if the buffer doesn't start with the magic
+     * of the binary recordings.
+     */
+    public static int getVersion(ByteBuffer buffer) {
+        if (!hasMagic(buffer) || buffer.remaining() <= MAGIC.length) {
+            return -1;
+        }
+        return buffer.get(buffer.position() + MAGIC.length);
+    }
+
+    /**
+     * Read a header at the position of a buffer. After the call, the
+     * position of the buffer is just after the header.
+     * @param buffer The buffer.
+     * @return The header.
+     * @throws IOException The buffer doesn't contain a valid header.
+     */
+    public static RecordingHeader read(ByteBuffer buffer) throws IOException {
+        if (!hasMagic(buffer)) {
+            throw new IOException("Not a binary recording");
+        }
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            buffer.position(buffer.position() + MAGIC.length);
+            byte version = buffer.get();
+            byte sideCode = buffer.get();
+            buffer.get();
+            int nbSensors = buffer.getShort() & 0xFFFF;
+            int nbMotors = buffer.getShort() & 0xFFFF;
+            double sampleRate = buffer.getFloat();
+            long nbRows = buffer.getLong();
+            if (sideCode < 0 || sideCode >= Side.values().length || nbRows < 0) {
+                throw new IOException("Invalid binary recording header");
+            }
+            double[] x = new double[nbSensors];
+            double[] y = new double[nbSensors];
+            int[] group = new int[nbSensors];
+            for (int i = 0; i < nbSensors; i++) {
+                x[i] = buffer.getFloat();
+                y[i] = buffer.getFloat();
+                group[i] = buffer.getInt();
+            }
+            return new RecordingHeader(version, Side.values()[sideCode], nbSensors, nbMotors, sampleRate, nbRows, x, y, group);
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Truncated binary recording header");
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    /**
+     * Write the header at the position of a buffer.
+     * @param buffer The buffer (at least getLength() bytes remaining).
+     */
+    public void write(ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC);
+        buffer.put(version);
+        buffer.put((byte)side.ordinal());
+        buffer.put((byte)0);
+        buffer.putShort((short)nbSensors);
+        buffer.putShort((short)nbMotors);
+        buffer.putFloat((float)sampleRate);
+        buffer.putLong(nbRows);
+        for (int i = 0; i < nbSensors; i++) {
+            buffer.putFloat((float)x[i]);
+            buffer.putFloat((float)y[i]);
+            buffer.putInt(group[i]);
+        }
+        buffer.order(order);
+    }
+
+    /**
+     * Estimate the sample rate of a recording from its first and last times.
+     * @param data The recording.
+     * @return The sample rate (in Hz), or 0 if it cannot be estimated.
+     */
+    public static double estimateSampleRate(Recording data) {
+        if (data.size() < 2) {
+            return 0;
+        }
+        double duration = data.getTime(data.size() - 1) - data.getTime(0);
+        return duration > 0 ? (data.size() - 1) / duration : 0;
+    }
+
+    /**
+     * Getter for the length of the header.
+     * @return The length of the header (in bytes).
+     */
+    public int getLength() {
+        return FIXED_LENGTH + SENSOR_LENGTH * nbSensors;
+    }
+
+    /**
+     * Getter for the number of columns of the rows.
+     * @return The number of columns.
+     */
+    public int getNbColumns() {
+        return 2 * nbSensors + nbMotors + 3;
+    }
+
+    /**
+     * Getter for the version of the format.
+     * @return The version.
+     */
+    public byte getVersion() {
+        return version;
+    }
+
+    /**
+     * Getter for the side of the shoe.
+     * @return The side.
+     */
+    public Side getSide() {
+        return side;
+    }
+
+    /**
+     * Getter for the number of sensors.
+     * @return The number of sensors.
+     */
+    public int getNbSensors() {
+        return nbSensors;
+    }
+
+    /**
+     * Getter for the number of motors.
+     * @return The number of motors.
+     */
+    public int getNbMotors() {
+        return nbMotors;
+    }
+
+    /**
+     * Getter for the sample rate.
+     * @return The sample rate (in Hz, 0 if unknown).
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Getter for the number of rows.
+     * @return The number of rows.
+     */
+    public long getNbRows() {
+        return nbRows;
+    }
+
+    /**
+     * Getter for the X coordinate of the ith sensor.
+     * @param i Index of the sensor (starting at 0).
+     * @return The X coordinate.
+     */
+    public double getX(int i) {
+        return x[i];
+    }
+
+    /**
+     * Getter for the Y coordinate of the ith sensor.
+     * @param i Index of the sensor (starting at 0).
+     * @return The Y coordinate.
+     */
+    public double getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * Getter for the group of the ith sensor.
+     * @param i Index of the sensor (starting at 0).
+     * @return The group.
+     */
+    public int getGroup(int i) {
+        return group[i];
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,391 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Write the Frames read from the serial port in a CSV file.<br>
+ * The Frames are queued and written by a dedicated thread, so the recording
+ * never slows down the reading or the display. The rows are formatted
+ * directly in a reused buffer and the buffer is written in the file when it
+ * is full or when the flush interval has elapsed.<br>
+ * The settings are read in the setting file (ressources/recording.txt):
+ * capacity of the queue, size of the buffer (in bytes), flush interval (in
+ * milliseconds), 1 to force the data on the disk at each flush (0 otherwise)
+ * and, optionally, maximum time to wait for a place in the queue (in
+ * milliseconds, 0 by default). The Frames are written by the thread
+ * processing the serial port, so by default a Frame which finds the queue
+ * full is dropped at once. The buffer must contain at least the header and
+ * the longest possible row (one per column of the header).
+ * @author Loïc David
+ * @see SerialReader
+ * @see Frame
+ */
+public class RecordingWriter {
+
+    private static final int MAX_VALUE_LENGTH = 32;
+    private static final long SCALE = 1000000;
+    private static final double MAX_FIXED = 1e12;
+    private final String path;
+    private final byte[] header;
+    private final int nbColumns;
+    private int queueCapacity;
+    private int bufferSize;
+    private long flushInterval;
+    private boolean fsync;
+    private long maxWait;
+    private volatile ArrayBlockingQueue<Frame> frames;
+    private Writer writer;
+    private final AtomicLong writtenFrames = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong waitedFrames = new AtomicLong();
+    private volatile IOException error;
+
+    /**
+     * Create a new instance of RecordingWriter.
+     * @param path Path of the CSV file.
+     * @param header First line of the CSV file (with the end of line).
+     * @throws IOException The settings cannot be loaded.
+     * @throws NumberFormatException Issue to convert data from the setting
+     * file.
+     * @see RecordingWriter
+     */
+    public RecordingWriter(String path, String header) throws IOException, NumberFormatException {
+        this.path = path;
+        this.header = header.getBytes(StandardCharsets.US_ASCII);
+        nbColumns = header.split(";").length;
+        initializeParameters();
+    }
+
+    /**
+     * Read the parameters of the recording in the setting file
+     * (ressources/recording.txt).
+     * @throws IOException The parameters cannot be loaded.
+     * @throws NumberFormatException Issue to convert data from the setting
+     * file.
+     */
+    public final void initializeParameters() throws IOException, NumberFormatException {
+        InputStream flux;
+        flux = new FileInputStream("././ressources/recording.txt");
+        InputStreamReader inputStreamReader = new InputStreamReader(flux);
+        BufferedReader buff = new BufferedReader(inputStreamReader);
+        queueCapacity = Integer.parseInt(buff.readLine());
+        bufferSize = Integer.parseInt(buff.readLine());
+        flushInterval = Long.parseLong(buff.readLine());
+        fsync = Integer.parseInt(buff.readLine()) == 1;
+        String line = buff.readLine();
+        maxWait = line == null || line.isEmpty() ? 0 : Long.parseLong(line);
+        buff.close();
+        inputStreamReader.close();
+        flux.close();
+        if (queueCapacity < 1 || bufferSize < header.length || bufferSize < nbColumns * MAX_VALUE_LENGTH
+                || flushInterval < 1 || maxWait < 0) {
+            throw new NumberFormatException("Wrong recording settings");
+        }
+    }
+
+    /**
+     * Create (or truncate) the CSV file, write the header and start the
+     * writing thread.
+     * @throws IOException The file cannot be created.
+     */
+    public void start() throws IOException {
+        start(path);
+    }
+
+    /**
+     * Same as start, but write the Frames in another file than the CSV file
+     * of the RecordingWriter (the next call to start writes again in the CSV
+     * file).
+     * @param path Path of the file.
+     * @throws IOException The file cannot be created.
+     * @see #start()
+     */
+    public void start(String path) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        frames = new ArrayBlockingQueue<>(queueCapacity);
+        writtenFrames.set(0);
+        droppedFrames.set(0);
+        waitedFrames.set(0);
+        error = null;
+        writer = new Writer(channel, frames);
+        writer.start();
+    }
+
+    /**
+     * Queue a Frame to be written.<br>
+     * If the queue is full, the Frame is dropped, unless a maximum waiting
+     * time is set: the Frame is then dropped if the queue is still full
+     * after this time.
+     * @param frame The Frame to write.
+     * @return True if the Frame has been queued, false if it has been dropped.
+     */
+    public boolean write(Frame frame) {
+        ArrayBlockingQueue<Frame> queue = frames;
+        if (queue == null) {
+            return false;
+        }
+        if (queue.offer(frame)) {
+            return true;
+        }
+        if (maxWait > 0) {
+            waitedFrames.incrementAndGet();
+            try {
+                if (queue.offer(frame, maxWait, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        droppedFrames.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Write all the queued Frames, close the file and wait for the end of
+     * the writing thread.
+     * @throws IOException An error occured while writing the file.
+     */
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.running = false;
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+            frames = null;
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Class which takes the queued Frames and writes them in the file.
+     */
+    private class Writer extends Thread {
+
+        private final FileChannel channel;
+        private final ArrayBlockingQueue<Frame> frames;
+        private final ByteBuffer buffer;
+        private final ArrayList<Frame> batch;
+        private volatile boolean running = true;
+
+        /**
+         * Create a new instance of Writer.
+         * @param channel The channel of the CSV file.
+         * @param frames The queue containing the Frames.
+         */
+        Writer(FileChannel channel, ArrayBlockingQueue<Frame> frames) {
+            this.channel = channel;
+            this.frames = frames;
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+            batch = new ArrayList<>(queueCapacity);
+        }
+
+        /**
+         * Program executed when the thread is started.<br>
+         * Take all the queued Frames at once and format them in the buffer.
+         * The buffer is written when it is full and at least once per flush
+         * interval. If the writing fails, the error is kept and thrown by
+         * close.
+         */
+        @Override
+        public void run() {
+            try {
+                buffer.put(header);
+                long nextFlush = System.currentTimeMillis() + flushInterval;
+                while (running || !frames.isEmpty()) {
+                    Frame first = frames.poll(Math.max(1, nextFlush - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        frames.drainTo(batch);
+                        for (int i = 0; i < batch.size(); i++) {
+                            format(batch.get(i));
+                        }
+                        writtenFrames.addAndGet(batch.size());
+                        batch.clear();
+                    }
+                    if (System.currentTimeMillis() >= nextFlush) {
+                        flush();
+                        nextFlush = System.currentTimeMillis() + flushInterval;
+                    }
+                }
+                flush();
+            } catch (IOException e) {
+                error = e;
+            } catch (InterruptedException e) {
+            } catch (RuntimeException e) {
+                // A Frame which doesn't fit in the buffer...
+                error = new IOException("Recording failed", e);
+            } finally {
+                // The next Frames are dropped instead of waiting in the
+                // queue.
+                if (error != null) {
+                    RecordingWriter.this.frames = null;
+                }
+                try {
+                    channel.close();
+                } catch (IOException e) {}
+            }
+        }
+
+        /**
+         * Format a Frame as a line of the CSV file at the end of the buffer.
+         * If the buffer may be too small, it is written first (the size of
+         * the buffer is checked for the columns of the header).
+         * @param frame The Frame to format.
+         * @throws IOException The buffer cannot be written.
+         */
+        private void format(Frame frame) throws IOException {
+            if (buffer.remaining() < frame.getNbColumns() * MAX_VALUE_LENGTH) {
+                write();
+            }
+            appendDouble(buffer, frame.getTime());
+            for (int i = 0; i < frame.getNbSensors(); i++) {
+                buffer.put((byte)';');
+                appendDouble(buffer, frame.getValue(i));
+            }
+            for (int i = 0; i < frame.getNbSensors(); i++) {
+                buffer.put((byte)';');
+                appendDouble(buffer, frame.getPressure(i));
+            }
+            for (int i = 0; i < frame.getNbMotors(); i++) {
+                buffer.put((byte)';');
+                appendDouble(buffer, frame.getMotor(i));
+            }
+            buffer.put((byte)';');
+            appendDouble(buffer, frame.getXcop());
+            buffer.put((byte)';');
+            appendDouble(buffer, frame.getYcop());
+            buffer.put((byte)'\n');
+        }
+
+        /**
+         * Write the content of the buffer in the file.
+         * @throws IOException The buffer cannot be written.
+         */
+        private void write() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Write the content of the buffer in the file and, if required, force
+         * it on the disk.
+         * @throws IOException The buffer cannot be written.
+         */
+        private void flush() throws IOException {
+            boolean empty = buffer.position() == 0;
+            write();
+            if (fsync && !empty) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Write a number in a buffer as ASCII characters.<br>
+     * The number is rounded to 6 decimals and written without useless zeros
+     * (but always with at least one decimal, like Double.toString). The
+     * numbers which are too big are written with Double.toString.
+     * @param buffer The buffer receiving the characters.
+     * @param value The number.
+     */
+    static void appendDouble(ByteBuffer buffer, double value) {
+        if (Double.isNaN(value) || Math.abs(value) >= MAX_FIXED) {
+            String s = Double.toString(value);
+            for (int i = 0; i < s.length(); i++) {
+                buffer.put((byte)s.charAt(i));
+            }
+            return;
+        }
+        long scaled = Math.round(Math.abs(value) * SCALE);
+        if (value < 0 && scaled != 0) {
+            buffer.put((byte)'-');
+        }
+        appendLong(buffer, scaled / SCALE);
+        buffer.put((byte)'.');
+        long decimals = scaled % SCALE;
+        if (decimals == 0) {
+            buffer.put((byte)'0');
+            return;
+        }
+        for (long unit = SCALE / 10; decimals != 0; unit /= 10) {
+            long digit = decimals / unit;
+            buffer.put((byte)('0' + digit));
+            decimals -= digit * unit;
+        }
+    }
+
+    /**
+     * Write a positive integer in a buffer as ASCII characters.
+     * @param buffer The buffer receiving the characters.
+     * @param value The integer.
+     */
+    private static void appendLong(ByteBuffer buffer, long value) {
+        long unit = 1;
+        while (unit <= value / 10) {
+            unit *= 10;
+        }
+        for (; unit > 0; unit /= 10) {
+            buffer.put((byte)('0' + (value / unit) % 10));
+        }
+    }
+
+    /**
+     * Getter for the number of Frames written since the start.
+     * @return The number of written Frames.
+     */
+    public long getWrittenFrames() {
+        return writtenFrames.get();
+    }
+
+    /**
+     * Getter for the number of Frames dropped since the start because the
+     * queue was full.
+     * @return The number of dropped Frames.
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Getter for the number of Frames which waited for a place in the queue
+     * since the start (they have been queued after waiting or dropped). It
+     * stays 0 when no maximum waiting time is set.
+     * @return The number of Frames which had to wait.
+     */
+    public long getWaitedFrames() {
+        return waitedFrames.get();
+    }
+
+    /**
+     * Getter for the number of Frames waiting to be written.
+     * @return The number of Frames in the queue.
+     */
+    public long getQueueSize() {
+        ArrayBlockingQueue<Frame> queue = frames;
+        return queue == null ? 0 : queue.size();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package model;
+
+import java.io.IOException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Thread reading the data of all the serial ports.<br>
+ * Instead of one thread per port blocked on a read, the ports are
+ * registered as Sources and a single thread reads them only when some data
+ * are available: the listener of each port calls signal() when data arrive.
+ * The thread never blocks on a port (it only reads the available bytes), so
+ * a Source can be unregistered at any time and stops being read at once.
+ * <br>
+ * In case an event is lost, the Sources are also checked every
+ * POLL_INTERVAL milliseconds. Without any Source, the thread sleeps until a
+ * Source is registered. It ends when the SerialEventLoop is shut down (it
+ * is started again at the next registration).
+ * @author Loïc David
+ * @see SerialReader
+ */
+public class SerialEventLoop {
+
+    /**
+     * Maximum time between two checks of the Sources (in milliseconds).
+     */
+    public static final long POLL_INTERVAL = 50;
+    private static final SerialEventLoop INSTANCE = new SerialEventLoop();
+    private final CopyOnWriteArrayList<Source> sources = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+    private volatile Thread thread;
+    private final Metrics.Counter errors = Metrics.getInstance().counter("serial.loop.errors");
+    private final Metrics.Counter wakeUps = Metrics.getInstance().counter("serial.loop.wakeUps");
+
+    /**
+     * Create a new instance of SerialEventLoop.
+     * @see SerialEventLoop
+     */
+    private SerialEventLoop() {
+    }
+
+    /**
+     * Getter for the SerialEventLoop shared by all the serial ports.
+     * @return The SerialEventLoop.
+     */
+    public static SerialEventLoop getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Interface of the objects read by the SerialEventLoop.
+     */
+    public static interface Source {
+        /**
+         * Read the available data, without blocking.
+         * @throws IOException The data cannot be read. The Source is then
+         * unregistered.
+         */
+        public void readAvailable() throws IOException;
+    }
+
+    /**
+     * Add a Source to read. The thread is started if needed.
+     * @param source The Source.
+     */
+    public synchronized void register(Source source) {
+        sources.add(source);
+        if (thread == null) {
+            thread = new Thread(this::run, "SerialEventLoop");
+            // The thread must not prevent the software from closing.
+            thread.setDaemon(true);
+            thread.start();
+        }
+        signal();
+    }
+
+    /**
+     * Remove a Source. It isn't read any more after this call, unless it is
+     * being read by the thread at this time.
+     * @param source The Source.
+     */
+    public void unregister(Source source) {
+        sources.remove(source);
+    }
+
+    /**
+     * Stop the thread (when the software is closed). The Sources are not
+     * read any more until a Source is registered.
+     */
+    public synchronized void shutdown() {
+        Thread t = thread;
+        thread = null;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    /**
+     * Wake the thread up because some data are available (any thread).
+     */
+    public void signal() {
+        pending.set(true);
+        Thread t = thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    /**
+     * Program executed by the thread.<br>
+     * Read all the Sources, then wait for a signal (or for the poll
+     * interval if there are Sources), until the thread is replaced or the
+     * SerialEventLoop is shut down.
+     */
+    private void run() {
+        while (thread == Thread.currentThread()) {
+            for (Source source : sources) {
+                try {
+                    source.readAvailable();
+                } catch (IOException | RuntimeException e) {
+                    errors.increment();
+                    unregister(source);
+                }
+            }
+            if (!pending.getAndSet(false)) {
+                if (sources.isEmpty()) {
+                    // Woken up by register or shutdown.
+                    LockSupport.park(this);
+                }
+                else {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL));
+                }
+            }
+            wakeUps.increment();
+        }
+    }
+
+}
\ No newline at end of file
@@ -7,15 +7,18 @@ import gnu.io.CommPortIdentifier;
 import gnu.io.NoSuchPortException;
 import gnu.io.PortInUseException;
 import gnu.io.SerialPort;
+import gnu.io.SerialPortEvent;
 import gnu.io.UnsupportedCommOperationException;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.FileInputStream;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import javafx.application.Platform;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.TooManyListenersException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleDoubleProperty;
@@ -30,20 +33,44 @@ import javafx.beans.property.SimpleIntegerProperty;
  */
 public class SerialReader {
     
+    private static final int LINE_CAPACITY = 4096;
+    private static final int LINE_QUEUE_CAPACITY = 4096;
+    private static final long PROCESSOR_TIMEOUT = 1000;
     private String port;
     private int dataRate;
     private int dataBits;
     private int stopBits;
     private int parity;
     private final IntegerProperty dataType = new SimpleIntegerProperty();
-    private boolean record = false;
     private final Shoe shoeModel;
     private final DoubleProperty time = new SimpleDoubleProperty(0);
     private InputStream input;
+    private OutputStream output;
     private CommPortIdentifier portIdentifier;
     private SerialPort serialPort;
     private final String header;
-    private Reader reader;
+    private final String savePath;
+    private volatile Session session;
+    private Processor processor;
+    private final FramePublisher publisher;
+    private final RecordingWriter recorder;
+    private PressureCalibration calibration;
+    private MotorRules motorRules;
+    private volatile MotorCommandWriter commandWriter;
+    private volatile FrameSynchronizer synchronizer;
+    private final Metrics.Counter bytes;
+    private final Metrics.Counter receivedLines;
+    private final Metrics.Counter droppedLines;
+    private final Metrics.Counter invalidLines;
+    private final Metrics.Counter processedLines;
+    private final Metrics.Counter errors;
+    private final LatencyHistogram parseDuration;
+    private final LatencyHistogram latency;
+    private final LatencyHistogram runLatency = new LatencyHistogram();
+    private long receivedBase = 0;
+    private long droppedBase = 0;
+    private long invalidBase = 0;
+    private long processedBase = 0;
 
     /**
      * Create a new instance of SerialReader.
@@ -67,6 +94,47 @@ public class SerialReader {
         h += "Xcop;";
         h += "Ycop\n";
         header = h;
+        publisher = new FramePublisher(shoeModel, time);
+        calibration = new PressureCalibration(shoeModel.getSensors().size());
+        motorRules = new MotorRules(shoeModel);
+        savePath = "././ressources/savedata" + shoeModel.getSide().toString() + ".csv";
+        recorder = new RecordingWriter(savePath, header);
+        Metrics metrics = Metrics.getInstance();
+        String name = "serial." + shoeModel.getSide().toString() + ".";
+        bytes = metrics.counter(name + "bytes");
+        receivedLines = metrics.counter(name + "lines.received");
+        droppedLines = metrics.counter(name + "lines.dropped");
+        invalidLines = metrics.counter(name + "lines.invalid");
+        processedLines = metrics.counter(name + "lines.processed");
+        errors = metrics.counter(name + "errors");
+        parseDuration = metrics.histogram(name + "parse");
+        latency = metrics.histogram(name + "latency");
+        metrics.gauge(name + "lines.tooLong", () -> {
+            Session s = session;
+            return s == null ? 0 : s.framer.getDroppedLines();
+        });
+        metrics.gauge(name + "queue", () -> {
+            Session s = session;
+            return s == null ? 0 : s.lines.size();
+        });
+        name = "recorder." + shoeModel.getSide().toString() + ".";
+        metrics.gauge(name + "written", recorder::getWrittenFrames);
+        metrics.gauge(name + "dropped", recorder::getDroppedFrames);
+        metrics.gauge(name + "waited", recorder::getWaitedFrames);
+        metrics.gauge(name + "queue", recorder::getQueueSize);
+        name = "motors." + shoeModel.getSide().toString() + ".";
+        metrics.gauge(name + "sent", () -> {
+            MotorCommandWriter writer = commandWriter;
+            return writer == null ? 0 : writer.getSentCommands();
+        });
+        metrics.gauge(name + "skipped", () -> {
+            MotorCommandWriter writer = commandWriter;
+            return writer == null ? 0 : writer.getSkippedFrames();
+        });
+        metrics.gauge(name + "maxLatency", () -> {
+            MotorCommandWriter writer = commandWriter;
+            return writer == null ? 0 : writer.getMaxLatency();
+        });
         initializeParameters();
     }
     
@@ -108,6 +176,7 @@ public class SerialReader {
             serialPort = (SerialPort)portIdentifier.open(this.getClass().getName(), 2000);
             serialPort.setSerialPortParams(dataRate, dataBits, stopBits, parity);
             input = serialPort.getInputStream();
+            output = serialPort.getOutputStream();
         } catch (NoSuchPortException ex) {
             throw new WrongPortException(port, shoeModel.getSide());
         } catch (PortInUseException ex) {
@@ -118,197 +187,380 @@ public class SerialReader {
     }
     
     /**
-     * Start the reading of the data from the serial port.
+     * Connect to streams instead of the serial port (used by the
+     * SerialSimulator).<br>
+     * The input stream is read by the SerialEventLoop, so it must give the
+     * number of available bytes. It is checked at each signal() of the
+     * SerialEventLoop, or at the latest every SerialEventLoop.POLL_INTERVAL.
+     * @param input The stream the data are read from.
+     * @param output The stream receiving the values of the motors.
+     * @see SerialSimulator
+     */
+    public void connect(InputStream input, OutputStream output) {
+        serialPort = null;
+        this.input = input;
+        this.output = output;
+    }
+    
+    /**
+     * Start the reading of the data from the serial port.<br>
+     * The data of the serial port are read by the SerialEventLoop (shared by
+     * both shoes), woken up by the events of the port. If a listener cannot
+     * be added to the port, a Reader thread reads it instead. The lines are
+     * then given to a Processor thread which converts them into Frames,
+     * publishes them and gives them to the RecordingWriter. If the data type
+     * is "Only sensors", the values of the motors are computed here, so a
+     * MotorCommandWriter sends them back to the shoe.<br>
+     * The calibration and the motor rules are reloaded, so they can be
+     * modified between two readings. If they cannot be reloaded, the previous
+     * ones are kept.<br>
+     * The Metrics of the serial reading of the shoe (bytes, lines received,
+     * dropped, processed..., latencies) keep counting from the previous
+     * readings (they are only reset by the user), but the getters of this
+     * class give the values of the current reading.<br>
+     * If the previous reading is still processing its last lines, wait for
+     * its end, at most PROCESSOR_TIMEOUT milliseconds: its remaining lines
+     * are then dropped.<br>
+     * The published Frames are applied to the Shoe at each pulse by the
+     * FramePublisher, so this method must be called by the JavaFX thread.
+     * @see #startSession()
      */
     public void startRead() {
-        record = true;
-        reader = new Reader();
-        reader.start();
+        startSession();
+        publisher.start();
     }
     
     /**
-     * Class which reads the data from the serial port, analyses them and sends
-     * them.
+     * Start the reading threads only (see startRead): the Frames are
+     * processed, published and saved, but the FramePublisher isn't started,
+     * so they are not applied to the Shoe. Unlike startRead, it can be called
+     * by any thread (used by the SerialSimulator).
+     * @see SerialSimulator
+     */
+    void startSession() {
+        startSession(savePath);
+    }
+    
+    /**
+     * Same as startSession, but the Frames are saved in another file than
+     * the temporary save file of the shoe, which is kept.
+     * @param recordingPath Path of the file receiving the Frames.
+     * @see #startSession()
+     */
+    void startSession(String recordingPath) {
+        // The previous Processor may still be processing its last lines.
+        if (processor != null) {
+            try {
+                processor.join(PROCESSOR_TIMEOUT);
+                if (processor.isAlive()) {
+                    processor.interrupt();
+                    processor.join(PROCESSOR_TIMEOUT);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // The counters are shared with the Metrics: their values at the
+        // start of the reading are kept instead of resetting them (if the
+        // user resets the Metrics during the reading, the values given by
+        // the getters stay at least 0).
+        receivedBase = receivedLines.get();
+        droppedBase = droppedLines.get();
+        invalidBase = invalidLines.get();
+        processedBase = processedLines.get();
+        runLatency.reset();
+        try {
+            calibration = new PressureCalibration(shoeModel.getSensors().size());
+        } catch (IOException | NumberFormatException e) {
+            errors.increment();
+        }
+        try {
+            motorRules = new MotorRules(shoeModel);
+        } catch (IOException | NumberFormatException e) {
+            errors.increment();
+        }
+        if (dataType.getValue() == 1 && output != null) {
+            commandWriter = new MotorCommandWriter(output);
+            commandWriter.start();
+        }
+        session = new Session(input);
+        processor = new Processor(session, new FrameProcessor(shoeModel, calibration, motorRules), commandWriter, recordingPath);
+        processor.start();
+        // No serial port if connected to streams: they are only read by the
+        // SerialEventLoop.
+        boolean eventDriven = true;
+        if (serialPort != null) {
+            try {
+                serialPort.addEventListener(event -> {
+                    if (event.getEventType() == SerialPortEvent.DATA_AVAILABLE) {
+                        SerialEventLoop.getInstance().signal();
+                    }
+                });
+                serialPort.notifyOnDataAvailable(true);
+            } catch (TooManyListenersException e) {
+                eventDriven = false;
+            }
+        }
+        // Nothing to read if not connected.
+        if (input != null) {
+            if (eventDriven) {
+                SerialEventLoop.getInstance().register(session);
+            }
+            else {
+                new Reader(session).start();
+            }
+        }
+    }
+    
+    /**
+     * Line read from the serial port, with the time it arrived.
+     */
+    private static class Line {
+        
+        private final byte[] bytes;
+        private final long arrivalTime;
+        
+        /**
+         * Create a new instance of Line.
+         * @param bytes The line (without the end of line).
+         * @param arrivalTime Time the line arrived (System.nanoTime()).
+         */
+        Line(byte[] bytes, long arrivalTime) {
+            this.bytes = bytes;
+            this.arrivalTime = arrivalTime;
+        }
+    }
+    
+    /**
+     * One reading of the serial port (from startRead to stopRead).<br>
+     * The bytes read are given to a LineFramer which finds the end of the
+     * lines. Each line is copied and queued for the Processor. If the
+     * Processor is late and the queue is full, the line is dropped.
+     */
+    private class Session implements SerialEventLoop.Source, LineFramer.FrameListener {
+        
+        private final InputStream stream;
+        private final ArrayBlockingQueue<Line> lines = new ArrayBlockingQueue<>(LINE_QUEUE_CAPACITY);
+        private final LineFramer framer = new LineFramer(LINE_CAPACITY, this);
+        private final byte[] buffer = new byte[1024];
+        private volatile boolean running = true;
+        
+        /**
+         * Create a new instance of Session.
+         * @param stream The stream of the serial port.
+         */
+        Session(InputStream stream) {
+            this.stream = stream;
+        }
+        
+        /**
+         * Read the bytes available on the serial port, without blocking
+         * (called by the SerialEventLoop).
+         * @throws IOException The serial port cannot be read.
+         */
+        @Override
+        public void readAvailable() throws IOException {
+            int available;
+            while (running && (available = stream.available()) > 0) {
+                int len = stream.read(buffer, 0, Math.min(available, buffer.length));
+                if (len < 0) {
+                    throw new IOException("End of stream");
+                }
+                bytes.add(len);
+                framer.feed(buffer, 0, len);
+            }
+        }
+        
+        @Override
+        public void onFrame(byte[] frame, int length) {
+            if (length > 0) {
+                receivedLines.increment();
+                if (!lines.offer(new Line(Arrays.copyOf(frame, length), System.nanoTime()))) {
+                    droppedLines.increment();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Class which reads the data from the serial port when it cannot be read
+     * by the SerialEventLoop (blocking reads).
      */
     private class Reader extends Thread {
+        
+        private final Session session;
+        
+        /**
+         * Create a new instance of Reader.
+         * @param session The reading session.
+         */
+        Reader(Session session) {
+            this.session = session;
+        }
+        
         /**
          * Program executed when the thread is started.<br>
-         * Its main role is to find the end of the lines and call the method
-         * sendData which needs the line as a parameter.
+         * Read the serial port until the end of the session. The thread is
+         * stopped at the latest when the port is closed.
          */
         @Override
         public void run() {
-            byte[] buffer = new byte[1024];
             int len;
-            int lrIndex;
-            String line = "";
             try {
-                try (BufferedWriter writer = new BufferedWriter(new FileWriter("././ressources/savedata" + shoeModel.getSide().toString() + ".csv"))) {
-                    writer.write(header);
-                    while ((len = input.read(buffer)) > -1 && record) {
-                        String str = new String(buffer,0,len);
-                        if ((lrIndex = str.indexOf("\n")) != -1) {
-                            if (lrIndex == 0 && str.length() == 1){
-                                sendData(line, writer);
-                                line = "";
-                            }
-                            else {
-                                String[] strSplit = str.split("\n");
-                                line += strSplit[0];
-                                sendData(line, writer);
-                                try {
-                                    line = strSplit[1];
-                                } catch (IndexOutOfBoundsException e) {
-                                    line = "";
-                                }
-                            }
-                        }
-                        else {
-                            line += str;
-                        }
+                while (session.running && (len = session.stream.read(session.buffer)) > -1) {
+                    if (session.running) {
+                        bytes.add(len);
+                        session.framer.feed(session.buffer, 0, len);
                     }
-                    writer.close();
                 }
-            } catch (IOException e) {}
+            } catch (IOException e) {
+                // The port has been closed, or cannot be read any more.
+                if (session.running) {
+                    errors.increment();
+                }
+            }
         }
     }
     
     /**
-     * If the data type is "All data":
-     * Write the line in a temporary save file and split it to get the data.
-     * Then, convert the data to send them.
-     * If the data type is "Only sensors":
-     * Split the line to get the data. Then, convert the data to calculate all
-     * the other data and send them. Finally, write the data in a temporary
-     * save file.
-     * @param str The line to analize and send.
-     * @param writer The writer to write the line in the save file.
-     */
-    private void sendData(String str, BufferedWriter writer) {
-        Platform.runLater(() -> { 
+     * Class which analyses the lines read by the Reader, sends them and saves
+     * them.
+     */
+    private class Processor extends Thread {
+        
+        private final Session session;
+        private final FrameProcessor frameProcessor;
+        private final MotorCommandWriter commandWriter;
+        private final String recordingPath;
+        
+        /**
+         * Create a new instance of Processor.
+         * @param session The reading session queuing the lines.
+         * @param frameProcessor The FrameProcessor used to convert the lines.
+         * @param commandWriter The MotorCommandWriter sending the values of
+         * the motors (null if they are not sent).
+         * @param recordingPath Path of the file receiving the Frames.
+         */
+        Processor(Session session, FrameProcessor frameProcessor, MotorCommandWriter commandWriter, String recordingPath) {
+            this.session = session;
+            this.frameProcessor = frameProcessor;
+            this.commandWriter = commandWriter;
+            this.recordingPath = recordingPath;
+        }
+        
+        /**
+         * Program executed when the thread is started.<br>
+         * Take the lines queued by the session and call the method sendData
+         * for each of them, until the session has stopped and all its lines
+         * have been processed.
+         */
+        @Override
+        public void run() {
             try {
-                String[] data = str.split(";");
-                double t = Double.parseDouble(data[0]);
-                time.setValue(t);
-                // Data type = "All data".
-                if (dataType.getValue() == 0) {
-                    for (int i = 1; i < shoeModel.getSensors().size() + 1; i++) {
-                        shoeModel.getSensors().get(i - 1).valueProperty().setValue(Double.parseDouble(data[i]));
-                    }
-                    for (int i = shoeModel.getSensors().size() + 1; i < 2 * shoeModel.getSensors().size() + 1; i++) {
-                        shoeModel.getSensors().get(i - 17).pressureProperty().setValue(Double.parseDouble(data[i]));
-                    }
-                    for (int i = 2 * shoeModel.getSensors().size() + 1; i < 2 * shoeModel.getSensors().size() + shoeModel.getMotors().size() + 1; i++) {
-                        shoeModel.getMotors().get(i - 33).valueProperty().setValue(Double.parseDouble(data[i]));
-                    }
-                    shoeModel.getCop().xProperty().setValue(Double.parseDouble(data[2 * shoeModel.getSensors().size() + shoeModel.getMotors().size() + 1]));
-                    shoeModel.getCop().yProperty().setValue(Double.parseDouble(data[2 * shoeModel.getSensors().size() + shoeModel.getMotors().size() + 2]));
-                    writer.append(str);
-                }
-                // Data type = "Only sensors".
-                else {
-                    // Save sensor values and compute sensor pressures.
-                    for (int i = 1; i < shoeModel.getSensors().size() + 1; i++) {
-                        double sensor = Double.parseDouble(data[i]);
-                        double pressure;
-                        if (sensor > 662) {
-                            pressure = 0.000274 * Math.pow(sensor, 3) - 0.6555 * Math.pow(sensor, 2) + 524.6 * sensor - 139500;  
-                        }
-                        else if (sensor > 100) {
-                            pressure = 0.0002479 * Math.pow(sensor, 2) + 0.1935 * sensor + 132;
-                        }
-                        else {
-                            pressure = 0;
-                        }
-                        shoeModel.getSensors().get(i - 1).valueProperty().setValue(sensor);
-                        shoeModel.getSensors().get(i - 1).pressureProperty().setValue(pressure);
-                    }
-                    // Compute CoP.
-                    double sumP = 0;
-                    double sumXP = 0;
-                    double sumYP = 0;
-                    for (Sensor s : shoeModel.getSensors()) {
-                        if (s.getGroup() == 1) {
-                            sumP += s.pressureProperty().getValue();
-                            sumXP += s.pressureProperty().getValue() * s.getX();
-                            sumYP += s.pressureProperty().getValue() * s.getY();
-                        }
-                    }
-                    double meanP1 = sumP / 12;
-                    double Xcop1;
-                    double Ycop1;
-                    if (meanP1 == 0) {
-                        Xcop1 = 0;
-                        Ycop1 = 0;
-                    }
-                    else {
-                        Xcop1 = sumXP / sumP;
-                        Ycop1 = sumYP / sumP;
-                    }
-                    sumP = 0;
-                    sumXP = 0;
-                    sumYP = 0;
-                    for (Sensor s : shoeModel.getSensors()) {
-                        if (s.getGroup() != 1) {
-                            sumP += s.pressureProperty().getValue();
-                            sumXP += s.pressureProperty().getValue() * s.getX();
-                            sumYP += s.pressureProperty().getValue() * s.getY();
-                        }
-                    }
-                    double meanP2 = sumP / 4;
-                    double Xcop2;
-                    double Ycop2;
-                    if (meanP2 == 0) {
-                        Xcop2 = 0;
-                        Ycop2 = 0;
-                    }
-                    else {
-                        Xcop2 = sumXP / sumP;
-                        Ycop2 = sumYP / sumP;
-                    }
-                    double Xcop;
-                    double Ycop;
-                    if (meanP1 == 0 && meanP2 == 0) {
-                        Xcop = -1000;
-                        Ycop = -1000;
-                    }
-                    else {
-                        Xcop = (meanP1 * Xcop1 + meanP2 * Xcop2) / (meanP1 + meanP2);
-                        Ycop = (meanP1 * Ycop1 + meanP2 * Ycop2) / (meanP1 + meanP2);
-                    }
-                    shoeModel.getCop().xProperty().setValue(Xcop);
-                    shoeModel.getCop().yProperty().setValue(Ycop);
-                    // Compute motor values.
-                    for (int i = 0; i < shoeModel.getMotors().size(); i++) {
-                        if (Ycop < -80 || (i != 3 && i != 7)) {
-                            shoeModel.getMotors().get(i).valueProperty().setValue(0);
-                        }
-                        else {
-                            shoeModel.getMotors().get(i).valueProperty().setValue(1);                                
-                        }
-                    }
-                    // Save data in file.
-                    String line = str.substring(0, str.length() - 1);
-                    for (Sensor s : shoeModel.getSensors()) {
-                        line += ";" + s.pressureProperty().getValue();
-                    }
-                    for (Motor m : shoeModel.getMotors()) {
-                        line += ";" + m.valueProperty().getValue();
+                recorder.start(recordingPath);
+            } catch (IOException e) {
+                errors.increment();
+                return;
+            }
+            try {
+                while (session.running || !session.lines.isEmpty()) {
+                    Line line = session.lines.poll(100, TimeUnit.MILLISECONDS);
+                    if (line != null) {
+                        sendData(line, frameProcessor, commandWriter);
                     }
-                    line += ";" + Xcop + ";" + Ycop + "\n";
-                    writer.append(line);
                 }
-            } catch (Exception e) {
-                // If there is a problem to analyse the line, we just do nothing and wait the next one.
+            } catch (InterruptedException e) {
+                // Stopped by the next reading: the remaining lines are
+                // dropped.
+                droppedLines.add(session.lines.size());
+                session.lines.clear();
             }
-        });
+            try {
+                recorder.close();
+            } catch (IOException e) {
+                errors.increment();
+            }
+        }
+    }
+    
+    /**
+     * Called by the Processor for each line read (outside the JavaFX
+     * thread).<br>
+     * Convert the line into a Frame (if the data type is "Only sensors", the
+     * pressures, the CoP and the values of the motors are computed). Then,
+     * send the values of the motors to the shoe (if needed), publish the
+     * Frame, give it to the FrameSynchronizer (if any) and to the
+     * RecordingWriter which writes it in a temporary save file.<br>
+     * All the lines are saved (unless the RecordingWriter is too late), but
+     * only the newest published Frame is displayed at each pulse of the
+     * JavaFX thread.
+     * @param line The line.
+     * @param frameProcessor The FrameProcessor used to convert the line.
+     * @param commandWriter The MotorCommandWriter sending the values of the
+     * motors (null if they are not sent).
+     * @see FrameProcessor
+     * @see MotorCommandWriter
+     * @see FramePublisher
+     * @see FrameSynchronizer
+     * @see RecordingWriter
+     */
+    private void sendData(Line line, FrameProcessor frameProcessor, MotorCommandWriter commandWriter) {
+        Frame frame;
+        long start = System.nanoTime();
+        try {
+            frame = frameProcessor.process(line.bytes, line.bytes.length, dataType.getValue(), line.arrivalTime);
+        } catch (Exception e) {
+            // If there is a problem to analyse the line, we just count it and wait the next one.
+            invalidLines.increment();
+            return;
+        }
+        parseDuration.recordSince(start);
+        if (commandWriter != null) {
+            commandWriter.submit(frame);
+        }
+        publisher.publish(frame);
+        FrameSynchronizer frameSynchronizer = synchronizer;
+        if (frameSynchronizer != null) {
+            frameSynchronizer.offer(shoeModel.getSide(), frame);
+        }
+        recorder.write(frame);
+        long elapsed = (System.nanoTime() - line.arrivalTime) / 1000;
+        latency.record(elapsed);
+        runLatency.record(elapsed);
+        processedLines.increment();
     }
     
     /**
-     * Stop the reading of the data from the serial port.
+     * Stop the reading of the data from the serial port.<br>
+     * The port is not read any more when this method returns (unless it is
+     * read by a Reader thread, which stops when the port is closed).<br>
+     * Like startRead, it must be called by the JavaFX thread.
+     * @see #stopSession()
      */
     public void stopRead() {
-        record = false;
+        stopSession();
+        publisher.stop();
+    }
+    
+    /**
+     * Stop the reading threads only, without stopping the FramePublisher
+     * (see stopRead). It can be called by any thread (used by the
+     * SerialSimulator).
+     * @see SerialSimulator
+     */
+    void stopSession() {
+        if (session != null) {
+            session.running = false;
+            SerialEventLoop.getInstance().unregister(session);
+            session = null;
+            if (serialPort != null) {
+                serialPort.removeEventListener();
+            }
+        }
+        if (commandWriter != null) {
+            commandWriter.stop();
+            commandWriter = null;
+        }
     }
     
     /**
@@ -318,6 +570,7 @@ public class SerialReader {
         stopRead();
         try {
             input.close();
+            output.close();
             serialPort.close();
         } catch (IOException | NullPointerException e) {}
     }
@@ -331,6 +584,87 @@ public class SerialReader {
         return time;
     }
 
+    /**
+     * Getter for the RecordingWriter which saves the data read.
+     * @return The RecordingWriter.
+     */
+    public RecordingWriter getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Getter for the MotorCommandWriter sending the values of the motors.
+     * @return The MotorCommandWriter, or null if the values of the motors
+     * are not sent.
+     */
+    public MotorCommandWriter getCommandWriter() {
+        return commandWriter;
+    }
+
+    /**
+     * Setter for the FrameSynchronizer pairing the Frames of this shoe with
+     * the Frames of the other shoe.
+     * @param synchronizer The FrameSynchronizer (null if the Frames are not
+     * paired).
+     */
+    public void setSynchronizer(FrameSynchronizer synchronizer) {
+        this.synchronizer = synchronizer;
+    }
+
+    /**
+     * Getter for the number of lines received since the start of the
+     * reading.
+     * @return The number of lines received.
+     */
+    public long getReceivedLines() {
+        return Math.max(0, receivedLines.get() - receivedBase);
+    }
+
+    /**
+     * Getter for the number of lines dropped since the start of the reading
+     * because the Processor was too late.
+     * @return The number of lines dropped.
+     */
+    public long getDroppedLines() {
+        return Math.max(0, droppedLines.get() - droppedBase);
+    }
+
+    /**
+     * Getter for the number of lines which couldn't be analysed since the
+     * start of the reading.
+     * @return The number of invalid lines.
+     */
+    public long getInvalidLines() {
+        return Math.max(0, invalidLines.get() - invalidBase);
+    }
+
+    /**
+     * Getter for the number of lines processed (sent and saved) since the
+     * start of the reading.
+     * @return The number of lines processed.
+     */
+    public long getProcessedLines() {
+        return Math.max(0, processedLines.get() - processedBase);
+    }
+
+    /**
+     * Getter for the mean latency between the arrival of a line and the end
+     * of its processing, during the current reading.
+     * @return The latency (in microseconds).
+     */
+    public double getMeanLatency() {
+        return runLatency.getMean();
+    }
+
+    /**
+     * Getter for the greatest latency between the arrival of a line and the
+     * end of its processing, during the current reading.
+     * @return The latency (in microseconds).
+     */
+    public long getMaxLatency() {
+        return runLatency.getMax();
+    }
+
     /**
      * Getter for the serial port.
      * @return The serial port.
@@ -0,0 +1,420 @@
+package model;
+
+import exception.CSVFileException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Simulate a shoe connected to a SerialReader, to measure how many lines
+ * per second it can read.<br>
+ * The lines are replayed from a recording (CSV, binary or compressed file)
+ * or generated (synthetic gait) and written at their time, multiplied by a
+ * speed factor, into a SimulatedPort connected to the SerialReader instead
+ * of the serial port. Like the buffer of a real serial port, the
+ * SimulatedPort has a limited capacity: if the SerialReader doesn't read it
+ * fast enough, the lines which don't fit any more are lost (overrun). The
+ * values of the motors sent back by the SerialReader are counted and
+ * ignored.<br>
+ * Each run gives a Result: lines sent, lost (overrun, dropped by the
+ * SerialReader or invalid), throughput and latency. The ingest ceiling is
+ * found by doubling the speed until lines are lost.<br>
+ * The SerialReader works as for a real reading, except that the Frames are
+ * saved in a file of the temporary directory of the system, so the
+ * temporary save file of the shoe (the last reading of the user) is kept.
+ * Its FramePublisher isn't started (it is driven by the JavaFX thread): the
+ * Frames are published but not applied to the Shoe, so the SerialSimulator
+ * can be run by any thread.
+ * @author Loïc David
+ * @see SerialReader
+ */
+public class SerialSimulator {
+
+    /**
+     * Capacity (in bytes) of the buffer of the SimulatedPort (like the
+     * buffer of the driver of a serial port).
+     */
+    public static final int PORT_CAPACITY = 64 * 1024;
+    private static final long DRAIN_TIMEOUT = 5000;
+    private final Shoe shoe;
+    private final int dataType;
+    private final List<byte[]> lines = new ArrayList<>();
+    private final List<Double> times = new ArrayList<>();
+    private final File recordingFile;
+
+    /**
+     * Create a new instance of SerialSimulator.
+     * @param shoe The Shoe whose SerialReader is tested.
+     * @param dataType 0 for "All data", 1 for "Only sensors".
+     * @see SerialSimulator
+     */
+    private SerialSimulator(Shoe shoe, int dataType) {
+        this.shoe = shoe;
+        this.dataType = dataType;
+        recordingFile = new File(System.getProperty("java.io.tmpdir"), "simulator" + shoe.getSide().toString() + ".csv");
+        recordingFile.deleteOnExit();
+    }
+
+    /**
+     * Create a SerialSimulator replaying a recording.
+     * @param shoe The Shoe whose SerialReader is tested.
+     * @param filePath The recording (CSV, binary or compressed file).
+     * @param dataType 0 to send all the data, 1 to send only the time and the
+     * values of the sensors.
+     * @return The SerialSimulator.
+     * @throws CSVFileException If the recording cannot be read.
+     */
+    public static SerialSimulator fromRecording(Shoe shoe, String filePath, int dataType) throws CSVFileException {
+        Recording recording = shoe.getCsvReader().readFile(filePath);
+        SerialSimulator simulator = new SerialSimulator(shoe, dataType);
+        int nbColumns = dataType == 0 ? recording.getNbColumns() : recording.getNbSensors() + 1;
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < recording.size(); i++) {
+            line.setLength(0);
+            for (int j = 0; j < nbColumns; j++) {
+                if (j > 0) {
+                    line.append(';');
+                }
+                line.append(recording.get(i, j));
+            }
+            simulator.add(recording.getTime(i), line);
+        }
+        recording.close();
+        return simulator;
+    }
+
+    /**
+     * Create a SerialSimulator generating a synthetic gait (only the values
+     * of the sensors).<br>
+     * During the stance phase of each step, the load moves from the heel to
+     * the toes: each sensor is pressed when the load passes at its Y
+     * coordinate. A small noise is added.
+     * @param shoe The Shoe whose SerialReader is tested.
+     * @param sampleRate Number of lines per second.
+     * @param duration Duration of the gait (in seconds).
+     * @return The SerialSimulator.
+     */
+    public static SerialSimulator fromGait(Shoe shoe, double sampleRate, double duration) {
+        SerialSimulator simulator = new SerialSimulator(shoe, 1);
+        ArrayList<Sensor> sensors = shoe.getSensors();
+        double minY = Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (Sensor sensor : sensors) {
+            minY = Math.min(minY, sensor.getY());
+            maxY = Math.max(maxY, sensor.getY());
+        }
+        double length = Math.max(maxY - minY, 1);
+        double stepPeriod = 1.1;
+        double stance = 0.6;
+        Random random = new Random(0);
+        StringBuilder line = new StringBuilder();
+        int nbLines = (int)(sampleRate * duration);
+        for (int i = 0; i < nbLines; i++) {
+            double time = i / sampleRate;
+            double phase = (time % stepPeriod) / stepPeriod / stance;
+            line.setLength(0);
+            line.append(Math.round(time * 1000) / 1000.0);
+            for (Sensor sensor : sensors) {
+                double value = 0;
+                if (phase < 1) {
+                    // Y is negative at the heel.
+                    double position = (sensor.getY() - minY) / length;
+                    double distance = (phase - position) / 0.2;
+                    value = 900 * Math.sin(Math.PI * phase) * Math.exp(-distance * distance);
+                }
+                value += 5 * random.nextDouble();
+                line.append(';').append(Math.round(value));
+            }
+            simulator.add(time, line);
+        }
+        return simulator;
+    }
+
+    /**
+     * Add a line to send.
+     * @param time The time of the line (in seconds).
+     * @param line The line (without the end of line).
+     */
+    private void add(double time, StringBuilder line) {
+        line.append('\n');
+        lines.add(line.toString().getBytes(StandardCharsets.US_ASCII));
+        times.add(time);
+    }
+
+    /**
+     * Send all the lines to the SerialReader once.<br>
+     * The SerialReader is connected to a new SimulatedPort, started, fed and
+     * stopped once all the lines received are processed (or after
+     * DRAIN_TIMEOUT milliseconds).
+     * @param speed Speed factor (1 for the real time, 0 to send the lines as
+     * fast as possible).
+     * @return The Result of the run.
+     */
+    public Result run(double speed) {
+        SerialReader reader = shoe.getSerialReader();
+        SimulatedPort port = new SimulatedPort(PORT_CAPACITY);
+        CountingOutputStream motors = new CountingOutputStream();
+        reader.stopSession();
+        reader.connect(port, motors);
+        reader.setDataType(dataType);
+        reader.startSession(recordingFile.getPath());
+        long overruns = 0;
+        double firstTime = times.isEmpty() ? 0 : times.get(0);
+        long start = System.nanoTime();
+        for (int i = 0; i < lines.size(); i++) {
+            if (speed > 0) {
+                long due = start + (long)((times.get(i) - firstTime) / speed * 1e9);
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            byte[] line = lines.get(i);
+            if (!port.write(line, 0, line.length)) {
+                overruns++;
+            }
+            SerialEventLoop.getInstance().signal();
+        }
+        long sendTime = System.nanoTime() - start;
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT;
+        while (System.currentTimeMillis() < deadline
+                && (port.available() > 0 || reader.getProcessedLines() + reader.getDroppedLines() + reader.getInvalidLines() < reader.getReceivedLines())) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        long totalTime = System.nanoTime() - start;
+        reader.stopSession();
+        port.close();
+        return new Result(speed, lines.size(), overruns, reader.getReceivedLines(), reader.getDroppedLines(),
+                reader.getInvalidLines(), reader.getProcessedLines(), sendTime, totalTime,
+                reader.getMeanLatency(), reader.getMaxLatency(), motors.count);
+    }
+
+    /**
+     * Find the ingest ceiling of the SerialReader.<br>
+     * The lines are sent at the first speed, then at twice this speed, and
+     * so on until lines are lost or the maximum speed is reached. The last
+     * run is made as fast as possible.
+     * @param firstSpeed The first speed factor.
+     * @param maxSpeed The maximum speed factor.
+     * @return The Results of all the runs.
+     */
+    public List<Result> findCeiling(double firstSpeed, double maxSpeed) {
+        List<Result> results = new ArrayList<>();
+        for (double speed = firstSpeed; speed <= maxSpeed; speed *= 2) {
+            Result result = run(speed);
+            results.add(result);
+            if (result.getLostLines() > 0) {
+                return results;
+            }
+        }
+        results.add(run(0));
+        return results;
+    }
+
+    /**
+     * Getter for the number of lines sent by a run.
+     * @return The number of lines.
+     */
+    public int getNbLines() {
+        return lines.size();
+    }
+
+    /**
+     * Result of a run of the SerialSimulator.
+     */
+    public static class Result {
+
+        private final double speed;
+        private final long sentLines;
+        private final long overruns;
+        private final long receivedLines;
+        private final long droppedLines;
+        private final long invalidLines;
+        private final long processedLines;
+        private final long sendTime;
+        private final long totalTime;
+        private final double meanLatency;
+        private final long maxLatency;
+        private final long motorBytes;
+
+        /**
+         * Create a new instance of Result.
+         */
+        Result(double speed, long sentLines, long overruns, long receivedLines, long droppedLines,
+                long invalidLines, long processedLines, long sendTime, long totalTime,
+                double meanLatency, long maxLatency, long motorBytes) {
+            this.speed = speed;
+            this.sentLines = sentLines;
+            this.overruns = overruns;
+            this.receivedLines = receivedLines;
+            this.droppedLines = droppedLines;
+            this.invalidLines = invalidLines;
+            this.processedLines = processedLines;
+            this.sendTime = sendTime;
+            this.totalTime = totalTime;
+            this.meanLatency = meanLatency;
+            this.maxLatency = maxLatency;
+            this.motorBytes = motorBytes;
+        }
+
+        /**
+         * Getter for the number of lines sent but not processed (overrun,
+         * dropped, invalid or not processed before the timeout).
+         * @return The number of lost lines.
+         */
+        public long getLostLines() {
+            return sentLines - processedLines;
+        }
+
+        /**
+         * Getter for the number of lines processed per second.
+         * @return The throughput (in lines per second).
+         */
+        public double getThroughput() {
+            return totalTime == 0 ? 0 : processedLines * 1e9 / totalTime;
+        }
+
+        /**
+         * Getter for the number of lines sent per second.
+         * @return The rate (in lines per second).
+         */
+        public double getSendRate() {
+            return sendTime == 0 ? 0 : sentLines * 1e9 / sendTime;
+        }
+
+        /**
+         * Getter for the mean latency between the arrival of a line and the
+         * end of its processing.
+         * @return The latency (in microseconds).
+         */
+        public double getMeanLatency() {
+            return meanLatency;
+        }
+
+        /**
+         * Getter for the greatest latency between the arrival of a line and
+         * the end of its processing.
+         * @return The latency (in microseconds).
+         */
+        public long getMaxLatency() {
+            return maxLatency;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("speed %s: sent %d (%.0f lines/s), overrun %d, received %d, dropped %d, invalid %d, "
+                    + "processed %d (%.0f lines/s), latency mean %.1f us max %d us, motor bytes %d",
+                    speed == 0 ? "max" : "x" + speed, sentLines, getSendRate(), overruns, receivedLines,
+                    droppedLines, invalidLines, processedLines, getThroughput(), meanLatency, maxLatency, motorBytes);
+        }
+    }
+
+    /**
+     * Stream replacing the serial port.<br>
+     * The bytes written are stored in a circular buffer until they are read.
+     * A line which doesn't fit in the buffer is lost.
+     */
+    private static class SimulatedPort extends InputStream {
+
+        private final byte[] buffer;
+        private int head = 0;
+        private int size = 0;
+        private boolean closed = false;
+
+        /**
+         * Create a new instance of SimulatedPort.
+         * @param capacity The capacity of the buffer (in bytes).
+         */
+        SimulatedPort(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        /**
+         * Write bytes, only if they fit in the buffer.
+         * @param bytes Buffer containing the bytes.
+         * @param offset Index of the first byte.
+         * @param length Number of bytes.
+         * @return true if the bytes were written, false if they were lost.
+         */
+        synchronized boolean write(byte[] bytes, int offset, int length) {
+            if (size + length > buffer.length) {
+                return false;
+            }
+            int tail = (head + size) % buffer.length;
+            int first = Math.min(length, buffer.length - tail);
+            System.arraycopy(bytes, offset, buffer, tail, first);
+            System.arraycopy(bytes, offset + first, buffer, 0, length - first);
+            size += length;
+            notifyAll();
+            return true;
+        }
+
+        @Override
+        public synchronized int available() {
+            return size;
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (size == 0) {
+                if (closed) {
+                    return -1;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            int count = Math.min(len, size);
+            int first = Math.min(count, buffer.length - head);
+            System.arraycopy(buffer, head, b, off, first);
+            System.arraycopy(buffer, 0, b, off + first, count - first);
+            head = (head + count) % buffer.length;
+            size -= count;
+            return count;
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Stream counting the bytes written (the commands of the motors).
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private volatile long count = 0;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+}
\ No newline at end of file
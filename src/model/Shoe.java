@@ -13,12 +13,13 @@ import view.mainwindow.shoe.ShoeView;
 
 /**
  * Model of a shoe.<br>
- * Contain all the Sensors and Motors, the CoP, the side of the Shoe, a
- * SerialReader and a CSVReader.
+ * Contain all the Sensors and Motors, the CoP and its trail, the side of the
+ * Shoe, a SerialReader and a CSVReader.
  * @author Loïc David.
  * @see Sensor
  * @see Motor
  * @see CoP
+ * @see CoPTrail
  * @see SerialReader
  * @see CSVReader
  * @see ShoeView
@@ -28,10 +29,13 @@ public class Shoe {
     private final ArrayList<Sensor> sensors = new ArrayList<>();
     private final ArrayList<Motor> motors = new ArrayList<>();
     private final CoP cop;
+    private final CoPTrail copTrail;
     private final SerialReader serialReader;
     private final CSVReader csvReader;
     private final Side side;
     private final IntegerProperty updated = new SimpleIntegerProperty(0);
+    private final IntegerProperty frame = new SimpleIntegerProperty(0);
+    private volatile CoPEngine copEngine;
     
     /**
      * Create a new instance of Shoe.
@@ -44,6 +48,7 @@ public class Shoe {
     public Shoe(Side side) throws NumberFormatException, IOException {
         this.side = side;
         cop = new CoP(side);
+        copTrail = new CoPTrail();
         initialize();
         csvReader = new CSVReader(this);
         serialReader = new SerialReader(this);
@@ -75,7 +80,8 @@ public class Shoe {
     }
     
     /**
-     * Initialize the shoe by initializing the sensors and the motors.
+     * Initialize the shoe by initializing the sensors, the motors and the
+     * CoPEngine.
      * @throws IOException Issue to access the files containing the settings.
      * @throws NumberFormatException Issue to convert the data from the setting
      * files.
@@ -83,6 +89,7 @@ public class Shoe {
     private void initialize() throws NumberFormatException, IOException {
         initializeSensors();
         initializeMotors();
+        copEngine = new CoPEngine(sensors);
     }
     
     /**
@@ -105,6 +112,36 @@ public class Shoe {
         updated.setValue(updated.getValue() + 1);
     }
     
+    /**
+     * Apply the data of one frame to the Sensors, the Motors and the CoP in
+     * a single pass, then change the frameProperty once.<br>
+     * The data are organised like a line of the CSV files: time, values of
+     * the sensors, pressures of the sensors, values of the motors, X and Y
+     * coordinates of the CoP. The values missing in the row (or in the Shoe)
+     * are ignored. The position of the CoP is added to the CoPTrail.
+     * @param row The data of the frame.
+     * @param nbSensors The number of sensors in the row.
+     * @param nbMotors The number of motors in the row.
+     * @see Frame#toRow(double[])
+     * @see Recording#getRow(int, double[])
+     */
+    public void applyRow(double[] row, int nbSensors, int nbMotors) {
+        int nbSensorsSet = Math.min(sensors.size(), nbSensors);
+        int nbMotorsSet = Math.min(motors.size(), nbMotors);
+        for (int i = 0; i < nbSensorsSet; i++) {
+            Sensor sensor = sensors.get(i);
+            sensor.valueProperty().setValue(row[1 + i]);
+            sensor.pressureProperty().setValue(row[1 + nbSensors + i]);
+        }
+        for (int i = 0; i < nbMotorsSet; i++) {
+            motors.get(i).valueProperty().setValue(row[1 + 2 * nbSensors + i]);
+        }
+        cop.xProperty().setValue(row[1 + 2 * nbSensors + nbMotors]);
+        cop.yProperty().setValue(row[2 + 2 * nbSensors + nbMotors]);
+        copTrail.add(row[0], cop.xProperty().getValue(), cop.yProperty().getValue());
+        frame.setValue(frame.getValue() + 1);
+    }
+    
     /**
      * Read the position of the sensors in the settings file
      * (ressources/sensors[left or right].txt).
@@ -181,6 +218,24 @@ public class Shoe {
         return cop;
     }
 
+    /**
+     * Getter for the trail of the CoP.
+     * @return The CoPTrail.
+     */
+    public CoPTrail getCopTrail() {
+        return copTrail;
+    }
+
+    /**
+     * Getter for the CoPEngine computing the CoP with the current sensors.<br>
+     * A new CoPEngine is created each time the Shoe is updated.
+     * @return The CoPEngine.
+     * @see CoPEngine
+     */
+    public CoPEngine getCoPEngine() {
+        return copEngine;
+    }
+    
     /**
      * Getter for the side.
      * @return The side.
@@ -213,4 +268,15 @@ public class Shoe {
         return updated;
     }
     
+    /**
+     * The value changes once per frame applied to the Shoe, after all the
+     * values of the frame. The views depending on several values (like the
+     * two coordinates of the CoP) listen to it to be updated once per frame.
+     * @return The frameProperty of the Shoe.
+     * @see #applyRow(double[], int, int)
+     */
+    public IntegerProperty frameProperty() {
+        return frame;
+    }
+    
 }
\ No newline at end of file
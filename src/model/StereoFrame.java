@@ -0,0 +1,72 @@
+package model;
+
+
+/**
+ * Frames of the left and right shoes taken at the same time.<br>
+ * A StereoFrame is immutable, so it can be shared between threads without
+ * any synchronisation.
+ * @author Loïc David
+ * @see FrameSynchronizer
+ * @see Frame
+ */
+public final class StereoFrame {
+
+    private final Frame left;
+    private final Frame right;
+
+    /**
+     * Create a new instance of StereoFrame.
+     * @param left The Frame of the left shoe.
+     * @param right The Frame of the right shoe.
+     * @see StereoFrame
+     */
+    StereoFrame(Frame left, Frame right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Getter for the Frame of the left shoe.
+     * @return The Frame of the left shoe.
+     */
+    public Frame getLeft() {
+        return left;
+    }
+
+    /**
+     * Getter for the Frame of the right shoe.
+     * @return The Frame of the right shoe.
+     */
+    public Frame getRight() {
+        return right;
+    }
+
+    /**
+     * Getter for the time of the StereoFrame (mean of the times of the two
+     * shoes).
+     * @return The time (in second).
+     */
+    public double getTime() {
+        return (left.getTime() + right.getTime()) / 2;
+    }
+
+    /**
+     * Getter for the difference between the times given by the two shoes.
+     * @return The time of the left shoe minus the time of the right shoe (in
+     * second).
+     */
+    public double getTimeDifference() {
+        return left.getTime() - right.getTime();
+    }
+
+    /**
+     * Getter for the difference between the arrival times of the two Frames
+     * on the computer.
+     * @return The arrival time of the left Frame minus the arrival time of
+     * the right Frame (in nanoseconds).
+     */
+    public long getSkew() {
+        return left.getArrivalTime() - right.getArrivalTime();
+    }
+
+}
\ No newline at end of file
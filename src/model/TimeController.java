@@ -4,7 +4,8 @@ import exception.CSVFileException;
 import exception.OtherConnectPortException;
 import exception.UsedPortException;
 import exception.WrongPortException;
-import javafx.application.Platform;
+import java.io.IOException;
+import javafx.animation.AnimationTimer;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
@@ -16,10 +17,16 @@ import javafx.beans.property.SimpleIntegerProperty;
 /**
  * This class manages the time of the reading.<br>
  * For the serial data, its role is only to start and stop the recording and to
- * store the time.<br>
+ * store the time. The Frames of both shoes are paired by a FrameSynchronizer
+ * and the time is the time of the newest pair.<br>
  * For the CSV data, it is used to control the time
- * (move in time, pause, play...).
+ * (move in time, pause, play...). During the playback, the index of the data
+ * to display is given by a PlaybackClock at each pulse of the JavaFX thread,
+ * so the data can be played at any speed, forward or backward (negative
+ * speed): at high speed, the data between two pulses are skipped.
  * @author Loïc David
+ * @see FrameSynchronizer
+ * @see PlaybackClock
  */
 public class TimeController {
     
@@ -33,22 +40,56 @@ public class TimeController {
     private final IntegerProperty indexTotalTime = new SimpleIntegerProperty();
     private final DoubleProperty time = new SimpleDoubleProperty(0);
     private final IntegerProperty indexTime = new SimpleIntegerProperty(0);
+    private final FrameSynchronizer synchronizer;
+    private final PlaybackClock clock = new PlaybackClock();
+    private final DoubleProperty speed = new SimpleDoubleProperty(1);
+    private AnimationTimer playbackTimer;
+    private int playbackIndex = 0;
+    private boolean updateRequested = false;
+    private double[] row = new double[0];
+    private final Metrics.Counter skippedSteps = Metrics.getInstance().counter("playback.skipped");
+    private final LatencyHistogram updateDuration = Metrics.getInstance().histogram("playback.update");
     
     /**
      * Create a new instance of TimeController.
      * @param leftShoe Model of the left shoe.
      * @param rightShoe Model of the right shoe.
+     * @throws IOException The settings of the synchronization cannot be
+     * loaded.
+     * @throws NumberFormatException Issue to convert data from a setting file.
      * @see TimeController
      */
-    public TimeController(Shoe leftShoe, Shoe rightShoe) {
+    public TimeController(Shoe leftShoe, Shoe rightShoe) throws IOException, NumberFormatException {
         this.rightShoe = rightShoe;
         this.leftShoe = leftShoe;
+        synchronizer = new FrameSynchronizer();
+        rightShoe.getSerialReader().setSynchronizer(synchronizer);
+        leftShoe.getSerialReader().setSynchronizer(synchronizer);
+        Metrics metrics = Metrics.getInstance();
+        metrics.gauge("sync.pairs", synchronizer::getPairs);
+        metrics.gauge("sync.unmatched.left", synchronizer::getUnmatchedLeft);
+        metrics.gauge("sync.unmatched.right", synchronizer::getUnmatchedRight);
+        metrics.gauge("sync.skew", () -> synchronizer.getSkew() / 1000);
+        metrics.gauge("sync.jitter", () -> (long)synchronizer.getJitter() / 1000);
+        // The PlaybackClock runs when the CSV files are played.
+        play.addListener((observable, oldValue, newValue) -> {
+            if (newValue && readCSV.getValue()) {
+                playbackIndex = indexTime.getValue();
+                clock.start(playbackIndex, System.nanoTime());
+            }
+            else {
+                clock.stop();
+            }
+        });
+        speed.addListener((observable, oldValue, newValue) -> clock.setSpeed(newValue.doubleValue(), System.nanoTime()));
     }
     
     /**
      * Stop the current reading (serial or CSV).
      */
     public void stopReading() {
+        synchronizer.stop();
+        stopPlayback();
         time.unbind();
         serial.setValue(false);
         readCSV.setValue(false);
@@ -63,15 +104,17 @@ public class TimeController {
      */
     public void initializeSerial() {
         // Stop the previous reading (CSV or serial).
+        stopPlayback();
         time.unbind();
         sleep.setValue(false);
         serial.setValue(false);
         readCSV.setValue(false);
         play.setValue(false);
         // Start the new one.
+        clearTrails();
         time.setValue(0);
-        time.bind(rightShoe.getSerialReader().timeProperty());
-        time.bind(leftShoe.getSerialReader().timeProperty());
+        synchronizer.timeProperty().setValue(0);
+        time.bind(synchronizer.timeProperty());
         serial.setValue(true);
     }
 
@@ -81,50 +124,95 @@ public class TimeController {
      */
     public void initializeCSVRead() throws CSVFileException {
         // Stop the previous reading (CSV or serial).
+        synchronizer.stop();
+        stopPlayback();
         time.unbind();
         sleep.setValue(false);
         serial.setValue(false);
         readCSV.setValue(false);
-        try {
-            Thread.sleep((long)(1500 * step));
-        } catch (InterruptedException ex) {
-            throw new CSVFileException();
-        }
         play.setValue(false);
         // Start the new one.
+        clearTrails();
         loadIndexTotalTime();
         loadStep();
         indexTime.setValue(0);
         time.setValue(0);
         update();
+        clock.setStep(step);
         readCSV.setValue(true);
-        (new Timer()).start();
+        startPlayback();
     }
     
     /**
-     * Thread used to count the time (in JavaFX, sleep can't be used because it
-     * freezes the graphic interface, so another thread is necessary to count
-     * the time).<br>
-     * This timer is used only whit the CSV reading when the user want to read
-     * the data without clicking on the button "next". In serial reading mod,
-     * the data are displayed when they are read, so the timer is useless.
+     * Clear the CoPTrails of both shoes, so the trails of a new reading don't
+     * start with the positions of the previous one.
+     * @see CoPTrail
      */
-    private class Timer extends Thread {
-        /**
-         * Program executed when the thread is started.<br>
-         * It waits the step then go to the next data.
-         */
-        @Override
-        public void run() {
-            while (readCSV.getValue()) {
-                try {
-                    Thread.sleep((long)(1000 * step));
-                } catch (InterruptedException ex) {}
-                if (play.getValue()) {
-                    Platform.runLater(() -> next());
+    private void clearTrails() {
+        rightShoe.getCopTrail().clear();
+        leftShoe.getCopTrail().clear();
+    }
+    
+    /**
+     * Start displaying the data given by the PlaybackClock at each pulse of
+     * the JavaFX thread (when the playback is started). In serial reading
+     * mode, the data are displayed when they are read, so the PlaybackClock
+     * is useless.
+     */
+    private void startPlayback() {
+        if (playbackTimer == null) {
+            playbackTimer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    pulse(now);
                 }
+            };
+        }
+        playbackTimer.start();
+    }
+    
+    /**
+     * Stop displaying the data given by the PlaybackClock.
+     */
+    private void stopPlayback() {
+        clock.stop();
+        if (playbackTimer != null) {
+            playbackTimer.stop();
+        }
+    }
+    
+    /**
+     * Display the data given by the PlaybackClock, if it is running, or the
+     * data of the current index if an update has been requested.<br>
+     * The data between the previous index and the new one are skipped. If
+     * the index has been changed by the user, the PlaybackClock restarts from
+     * it. The playback is paused at the end of the data (or at the start if
+     * the speed is negative).
+     * @param now The time of the pulse (System.nanoTime()).
+     */
+    private void pulse(long now) {
+        if (!readCSV.getValue()) {
+            return;
+        }
+        if (clock.isRunning()) {
+            if (indexTime.getValue() != playbackIndex) {
+                playbackIndex = indexTime.getValue();
+                clock.start(playbackIndex, now);
+            }
+            int index = Math.max(0, Math.min(clock.getIndex(now), indexTotalTime.getValue()));
+            if (index != playbackIndex) {
+                skippedSteps.add(Math.abs(index - playbackIndex) - 1);
+                playbackIndex = index;
+                indexTime.setValue(index);
+                update();
+            }
+            if ((index == indexTotalTime.getValue() && speed.getValue() > 0) || (index == 0 && speed.getValue() < 0)) {
+                play.setValue(false);
             }
         }
+        if (updateRequested) {
+            update();
+        }
     }
     
     /**
@@ -172,11 +260,17 @@ public class TimeController {
             leftShoe.getSerialReader().stopRead();
             rightShoe.getSerialReader().closePort();
             leftShoe.getSerialReader().closePort();
+            synchronizer.stop();
         }
         else {
             rightShoe.getSerialReader().connect();
             leftShoe.getSerialReader().connect();
             play.setValue(true);
+            try {
+                synchronizer.initializeParameters();
+            } catch (IOException | NumberFormatException e) {}
+            synchronizer.reset();
+            synchronizer.start();
             rightShoe.getSerialReader().startRead();
             leftShoe.getSerialReader().startRead();
         }
@@ -184,33 +278,47 @@ public class TimeController {
     
     /**
      * Load the CSV data of the current time from the CSVReader and send them
-     * to the classes which need them.
+     * to the classes which need them.<br>
+     * One row is read per shoe and applied in a single pass, so the views
+     * depending on the frame are updated once. The duration is measured in
+     * the Metrics.
      * @see CSVReader
+     * @see Shoe#applyRow(double[], int, int)
      */
     public void update() {
-        time.setValue(rightShoe.getCsvReader().getTime(indexTime.getValue()));
-        for (int i = 0; i < rightShoe.getCsvReader().getNbMotors(); i++) {
-            rightShoe.getMotors().get(i).valueProperty().setValue(rightShoe.getCsvReader().getMotorValue(indexTime.getValue(), i + 1));
-        }
-        for (int i = 0; i < leftShoe.getCsvReader().getNbMotors(); i++) {
-            leftShoe.getMotors().get(i).valueProperty().setValue(leftShoe.getCsvReader().getMotorValue(indexTime.getValue(), i + 1));
-        }
-        for (int i = 0; i < rightShoe.getCsvReader().getNbSensors(); i++) {
-            rightShoe.getSensors().get(i).valueProperty().setValue(rightShoe.getCsvReader().getSensorValue(indexTime.getValue(), i + 1));
-        }
-        for (int i = 0; i < leftShoe.getCsvReader().getNbSensors(); i++) {
-            leftShoe.getSensors().get(i).valueProperty().setValue(leftShoe.getCsvReader().getSensorValue(indexTime.getValue(), i + 1));
-        }
-        for (int i = 0; i < rightShoe.getCsvReader().getNbSensors(); i++) {
-            rightShoe.getSensors().get(i).pressureProperty().setValue(rightShoe.getCsvReader().getSensorPressure(indexTime.getValue(), i + 1));
-        }
-        for (int i = 0; i < leftShoe.getCsvReader().getNbSensors(); i++) {
-            leftShoe.getSensors().get(i).pressureProperty().setValue(leftShoe.getCsvReader().getSensorPressure(indexTime.getValue(), i + 1));
+        long start = System.nanoTime();
+        int index = indexTime.getValue();
+        updateRequested = false;
+        time.setValue(applyRow(rightShoe, index));
+        applyRow(leftShoe, index);
+        updateDuration.recordSince(start);
+    }
+    
+    /**
+     * Read a row of the CSV data of a shoe and apply it to the shoe.
+     * @param shoe The shoe.
+     * @param index The index of the row.
+     * @return The time of the row.
+     */
+    private double applyRow(Shoe shoe, int index) {
+        Recording data = shoe.getCsvReader().getData();
+        if (row.length < data.getNbColumns()) {
+            row = new double[data.getNbColumns()];
         }
-        rightShoe.getCop().xProperty().setValue(rightShoe.getCsvReader().getXcop(indexTime.getValue()));
-        leftShoe.getCop().xProperty().setValue(leftShoe.getCsvReader().getXcop(indexTime.getValue()));
-        rightShoe.getCop().yProperty().setValue(rightShoe.getCsvReader().getYcop(indexTime.getValue()));
-        leftShoe.getCop().yProperty().setValue(leftShoe.getCsvReader().getYcop(indexTime.getValue()));
+        data.getRow(index, row);
+        shoe.applyRow(row, data.getNbSensors(), data.getNbMotors());
+        return row[0];
+    }
+    
+    /**
+     * Ask for an update at the next pulse of the JavaFX thread (CSV only).
+     * <br>
+     * Used when the index changes faster than the display (like when the
+     * slider is dragged): the requests of a pulse are merged in one update
+     * of the last index.
+     */
+    public void requestUpdate() {
+        updateRequested = true;
     }
     
     /**
@@ -262,6 +370,34 @@ public class TimeController {
         indexTime.setValue(indexTime.getValue() + dt);
     }
     
+    /**
+     * Contain the speed of the playback of the CSV files (1 for the real
+     * time, negative to play backward).
+     * @return The speedProperty of the TimeController.
+     * @see TimeController
+     */
+    public DoubleProperty speedProperty() {
+        return speed;
+    }
+    
+    /**
+     * Setter for the speed of the playback of the CSV files.
+     * @param speed The speed (1 for the real time, negative to play
+     * backward).
+     */
+    public void setSpeed(double speed) {
+        this.speed.setValue(speed);
+    }
+    
+    /**
+     * Getter for the FrameSynchronizer pairing the Frames of the shoes during
+     * the serial reading.
+     * @return The FrameSynchronizer.
+     */
+    public FrameSynchronizer getSynchronizer() {
+        return synchronizer;
+    }
+    
     /**
      * Contain the time (in second).
      * @return The timeProperty of the TimeController.
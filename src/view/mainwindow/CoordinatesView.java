@@ -59,29 +59,18 @@ public class CoordinatesView extends VBox {
             }
         });
         
-        // Bind copLabel to CoP position.
-        shoeView.getModel().getCop().xProperty().addListener(new ChangeListener<Number>() {
+        // Bind copLabel to CoP position, once per frame.
+        shoeView.getModel().frameProperty().addListener(new ChangeListener<Number>() {
             @Override
             public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-                if (newValue.doubleValue() > 500 || newValue.doubleValue() < -500) {
+                double x = shoeView.getModel().getCop().xProperty().getValue();
+                double y = shoeView.getModel().getCop().yProperty().getValue();
+                if (x > 500 || x < -500 || y > 500 || y < -500) {
                     copLabel.setText("CoP: (None, None)");
                 }
                 else {
-                    double x = (double)((int)(newValue.doubleValue() * 100)) / 100;
-                    double y = (double)((int)(shoeView.getModel().getCop().yProperty().getValue() * 100)) / 100;
-                    copLabel.setText("CoP: (" + x + ", " + y + ")");
-                }
-            }
-        });
-        shoeView.getModel().getCop().yProperty().addListener(new ChangeListener<Number>() {
-            @Override
-            public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-                if (newValue.doubleValue() > 500 || newValue.doubleValue() < -500) {
-                    copLabel.setText("CoP: (None, None)");
-                }
-                else {
-                    double y = (double)((int)(newValue.doubleValue() * 100)) / 100;
-                    double x = (double)((int)(shoeView.getModel().getCop().xProperty().getValue() * 100)) / 100;
+                    x = (double)((int)(x * 100)) / 100;
+                    y = (double)((int)(y * 100)) / 100;
                     copLabel.setText("CoP: (" + x + ", " + y + ")");
                 }
             }
@@ -1,30 +1,38 @@
 package view.mainwindow;
 
-import java.io.File;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.shape.Rectangle;
 import javafx.scene.text.TextAlignment;
 import model.Shoe;
+import view.mainwindow.shoe.ColorMap;
 import view.mainwindow.shoe.MotorView;
 import view.mainwindow.shoe.SensorView;
 
 
 /**
- * Legend of the sensors' and motors' colors. 
+ * Legend of the sensors' and motors' colors.<br>
+ * The legends are built from the ColorMaps used by the views, so they follow
+ * the scales of the setting file.
  * @author Loïc David
+ * @see ColorMap
  * @see MotorView
  * @see SensorView
  */
 public class LegendView extends GridPane {
     
+    /**
+     * Number of intervals of the legends (the legends have one more block).
+     */
+    public static final int NB_STEPS = 10;
     private final Shoe shoe;
     
     /**
@@ -65,10 +73,8 @@ public class LegendView extends GridPane {
         motorLabel.setTextAlignment(TextAlignment.CENTER);
         Label sensorLabel = new Label("Sensor\n(mmHg)");
         sensorLabel.setTextAlignment(TextAlignment.CENTER);
-        String pathMotor = new File(".//.//ressources//legendmotor.png").toURI().toString();
-        String pathSensor = new File(".//.//ressources//legendsensor.png").toURI().toString();
-        ImageView motorLegend = new ImageView(new Image(pathMotor));
-        ImageView sensorLegend = new ImageView(new Image(pathSensor));
+        VBox motorLegend = createLegend(ColorMap.getMotorColorMap(), 100);
+        VBox sensorLegend = createLegend(ColorMap.getSensorColorMap(), 1);
         
         // Add interactions to components.
         shoe.getSerialReader().dataTypeProperty().addListener(new ChangeListener<Number>() {
@@ -93,4 +99,25 @@ public class LegendView extends GridPane {
         
     }
     
+    /**
+     * Create the legend of a ColorMap: a column of blocks, from 0 (bottom)
+     * to the maximum of the ColorMap (top), filled with the color of their
+     * value.
+     * @param colorMap The ColorMap.
+     * @param unit The factor between the values and the displayed values
+     * (100 to display the values of the motors in %).
+     * @return The legend.
+     */
+    private VBox createLegend(ColorMap colorMap, double unit) {
+        VBox legend = new VBox();
+        for (int i = NB_STEPS; i >= 0; i--) {
+            double value = colorMap.getMax() * i / NB_STEPS;
+            Rectangle block = new Rectangle(40, 53, colorMap.getColor(value));
+            Label valueLabel = new Label(Long.toString(Math.round(value * unit)));
+            valueLabel.setStyle("-fx-text-fill: white");
+            legend.getChildren().add(new StackPane(block, valueLabel));
+        }
+        return legend;
+    }
+    
 }
\ No newline at end of file
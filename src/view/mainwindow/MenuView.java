@@ -14,6 +14,7 @@ import javafx.scene.control.MenuItem;
 import model.MenuController;
 import view.otherwindow.CSVSelector;
 import view.otherwindow.ErrorWindow;
+import view.otherwindow.MetricsView;
 import view.otherwindow.SaveSelector;
 import view.otherwindow.SerialSettingsView;
 
@@ -105,7 +106,8 @@ public class MenuView extends MenuBar {
         serialSettingsMenu.getItems().addAll(portsMenuItem, dataTypeMenu);
         MenuItem leftShoeMenuItem = new MenuItem("Left shoe");
         MenuItem rightShoeMenuItem = new MenuItem("Right shoe");
-        settingsMenu.getItems().addAll(serialSettingsMenu, leftShoeMenuItem, rightShoeMenuItem);
+        CheckMenuItem canvasCheckMenuItem = new CheckMenuItem("Canvas rendering");
+        settingsMenu.getItems().addAll(serialSettingsMenu, leftShoeMenuItem, rightShoeMenuItem, canvasCheckMenuItem);
         
         // Initialize CheckMenuItems.
         if (menuController.getLeftShoe().getSerialReader().dataTypeProperty().getValue() == 0) {
@@ -172,8 +174,35 @@ public class MenuView extends MenuBar {
                 (new ShoeEditor(shoeViewRight,  menuController)).show();
             }
         });
+        // canvasCheckMenuItem.
+        // Draw the shoes with canvases (faster at high rates) or with nodes.
+        canvasCheckMenuItem.selectedProperty().addListener(new ChangeListener<Boolean>() {
+            @Override
+            public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) {
+                shoeViewLeft.setCanvasRendering(newValue);
+                shoeViewRight.setCanvasRendering(newValue);
+            }
+        });
+        
+        
+        // Tools.
+        
+        // Create menus.
+        Menu toolsMenu = new Menu("Tools");
+        MenuItem metricsMenuItem = new MenuItem("Metrics");
+        toolsMenu.getItems().addAll(metricsMenuItem);
+        
+        // Connect menus to methods.
+        // metricsMenuItem.
+        // Open a window displaying the metrics of the software.
+        metricsMenuItem.setOnAction(new EventHandler<ActionEvent>() {
+            @Override
+            public void handle(ActionEvent event) {
+                (new MetricsView()).show();
+            }
+        });
         
-        getMenus().addAll(fileMenu, settingsMenu);
+        getMenus().addAll(fileMenu, settingsMenu, toolsMenu);
         
     }  
     
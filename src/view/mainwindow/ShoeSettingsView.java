@@ -18,6 +18,8 @@ public class ShoeSettingsView extends GridPane {
     CheckBox gridCheckBox;
     CheckBox sensorCheckBox;
     CheckBox motorCheckBox;
+    CheckBox heatmapCheckBox;
+    CheckBox trailCheckBox;
     
     /**
      * Create a new instance of ShoeSettingsView.
@@ -34,7 +36,7 @@ public class ShoeSettingsView extends GridPane {
         // Set style.
         setPadding(new Insets(5, 0, 5, 0));
         setAlignment(Pos.CENTER);
-        setHgap(100);
+        setHgap(30);
         setVgap(10);
         
         // Create components.
@@ -46,12 +48,17 @@ public class ShoeSettingsView extends GridPane {
         sensorCheckBox.setSelected(true);
         motorCheckBox = new CheckBox("Motors");
         motorCheckBox.setSelected(true);
+        heatmapCheckBox = new CheckBox("Heatmap");
+        trailCheckBox = new CheckBox("CoP trail");
+        trailCheckBox.setSelected(true);
         
         // Add components to the grid.
         add(axisCheckBox, 0, 0);
         add(gridCheckBox, 0, 1);
         add(sensorCheckBox, 1, 0);
         add(motorCheckBox, 1, 1);
+        add(heatmapCheckBox, 2, 0);
+        add(trailCheckBox, 2, 1);
         
     }
 
@@ -87,4 +94,20 @@ public class ShoeSettingsView extends GridPane {
         return motorCheckBox;
     }
 
+    /**
+     * Getter for the heatmapCheckBox.
+     * @return The heatmapCheckBox
+     */
+    public CheckBox getHeatmapCheckBox() {
+        return heatmapCheckBox;
+    }
+
+    /**
+     * Getter for the trailCheckBox.
+     * @return The trailCheckBox
+     */
+    public CheckBox getTrailCheckBox() {
+        return trailCheckBox;
+    }
+
 }
\ No newline at end of file
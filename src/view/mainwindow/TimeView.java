@@ -8,6 +8,7 @@ import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.event.EventHandler;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
 import javafx.scene.image.Image;
@@ -29,6 +30,7 @@ public class TimeView extends HBox {
     private Button nextButton;
     private Button playPauseButton;
     private Slider slider;
+    private ComboBox<String> speedComboBox;
     private Label timeLabel;
     private final ImageView playImageView = new ImageView(new Image(new File(".//.//ressources//play.png").toURI().toString()));
     private final ImageView pauseImageView = new ImageView(new Image(new File(".//.//ressources//pause.png").toURI().toString()));
@@ -83,15 +85,21 @@ public class TimeView extends HBox {
         playPauseButton.setDisable(true);
         // slider.
         slider = new Slider(0, 100, 10);
-        slider.setPrefSize(510, 30);
+        slider.setPrefSize(430, 30);
         slider.setDisable(true);
+        // speedComboBox.
+        speedComboBox = new ComboBox<>();
+        speedComboBox.getItems().addAll("-16x", "-4x", "-1x", "0.25x", "0.5x", "1x", "2x", "4x", "16x", "64x");
+        speedComboBox.setValue("1x");
+        speedComboBox.setPrefSize(80, 30);
+        speedComboBox.setDisable(true);
         // timeLabel.
         timeLabel = new Label("00:00");
         timeLabel.setPrefSize(54, 30);
         
         
         // Add components to TimeView.
-        getChildren().addAll(previousButton, playPauseButton, nextButton, slider, timeLabel);
+        getChildren().addAll(previousButton, playPauseButton, nextButton, speedComboBox, slider, timeLabel);
         
         
         // Connect components to methods.
@@ -121,6 +129,14 @@ public class TimeView extends HBox {
                 timeController.playPause();
             }
         };
+        // speedComboBox.
+        // Change the speed of the playback (CSV only), negative to play backward.
+        speedComboBox.valueProperty().addListener(new ChangeListener<String>() {
+            @Override
+            public void changed(ObservableValue<? extends String> observable, String oldValue, String newValue) {
+                timeController.setSpeed(Double.parseDouble(newValue.substring(0, newValue.length() - 1)));
+            }
+        });
         // Start or stop the record of serial data.
         recordStop = new EventHandler<MouseEvent>() {
             @Override
@@ -167,16 +183,16 @@ public class TimeView extends HBox {
             @Override
             public void handle(MouseEvent event) {
                 timeController.setPlay(false);
-                timeController.update();
+                timeController.requestUpdate();
                 slider.addEventHandler(MouseEvent.MOUSE_DRAGGED, moveSlider);
                 slider.addEventHandler(MouseEvent.MOUSE_RELEASED, releaseSlider);
             }
         };
-        // When the slider is dragged, the time is updated.
+        // When the slider is dragged, the time is updated (once per pulse).
         moveSlider = new EventHandler<MouseEvent>() {
             @Override
             public void handle(MouseEvent event) {
-                timeController.update();
+                timeController.requestUpdate();
             }
         };
         // When the slider is released, the drag and release handlers are removed.
@@ -257,6 +273,7 @@ public class TimeView extends HBox {
         previousButton.setDisable(false);
         playPauseButton.setDisable(false);
         nextButton.setDisable(false);
+        speedComboBox.setDisable(false);
         slider.setDisable(false);
     }
     
@@ -278,6 +295,7 @@ public class TimeView extends HBox {
         previousButton.setDisable(true);
         playPauseButton.setDisable(false);
         nextButton.setDisable(true);
+        speedComboBox.setDisable(true);
         slider.setDisable(true);
     }
     
@@ -296,6 +314,7 @@ public class TimeView extends HBox {
         previousButton.setDisable(true);
         playPauseButton.setDisable(true);
         nextButton.setDisable(true);
+        speedComboBox.setDisable(true);
         slider.setDisable(true);
     }
     
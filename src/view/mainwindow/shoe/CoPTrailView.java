@@ -0,0 +1,186 @@
+package view.mainwindow.shoe;
+
+import javafx.collections.ObservableList;
+import javafx.scene.Group;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Polyline;
+import javafx.scene.shape.StrokeLineCap;
+import javafx.scene.shape.StrokeLineJoin;
+import model.CoPTrail;
+import model.Shoe.Side;
+
+
+/**
+ * View of the trail of the CoP.<br>
+ * The trail is one line, cut in NB_BANDS bands of duration / NB_BANDS seconds
+ * (one Polyline per band), whose opacity decreases with their age. Each band
+ * starts at the last point of the previous one, so the line is continuous.
+ * <br>
+ * The line isn't rebuilt at each frame: the new samples of the CoPTrail are
+ * added at the end of the newest band and the dropped samples are removed
+ * from the start of the oldest band. When the newest band is full, the oldest
+ * Polyline is reused for a new band, and only the opacities of the bands are
+ * changed.
+ * @author Loïc David
+ * @see CoPTrail
+ * @see CoPView
+ */
+public class CoPTrailView extends Group {
+
+    /**
+     * Number of bands of opacity of the trail.
+     */
+    public static final int NB_BANDS = 8;
+    private static final int NB_LINES = NB_BANDS + 1;
+    private final CoPTrail model;
+    private final Side side;
+    private final double bandDuration;
+    private final Polyline[] lines = new Polyline[NB_LINES];
+    private final int[] nbSamples = new int[NB_LINES];
+    private final boolean[] joined = new boolean[NB_LINES];
+    private final double[] startTimes = new double[NB_LINES];
+    private int oldest = 0;
+    private int newest = 0;
+    private int nbLines = 0;
+    private int shown = 0;
+    private long count = 0;
+    private double lastX;
+    private double lastY;
+
+    /**
+     * Create a new instance of CoPTrailView.
+     * @param model The trail of the CoP.
+     * @param side The side of the Shoe of the CoP.
+     * @see CoPTrailView
+     */
+    public CoPTrailView(CoPTrail model, Side side) {
+        this.model = model;
+        this.side = side;
+        // The trail covers at most NB_BANDS + 1 bands, the oldest one being
+        // partially dropped.
+        bandDuration = model.getDuration() / NB_BANDS;
+        initialize();
+    }
+
+    /**
+     * Initialize the CoPTrailView.<br>
+     * Create the Polylines of the bands.
+     */
+    private void initialize() {
+        setMouseTransparent(true);
+        for (int i = 0; i < NB_LINES; i++) {
+            Polyline line = new Polyline();
+            line.setStroke(Color.color(0, 0, 1));
+            line.setStrokeWidth(2);
+            line.setStrokeLineCap(StrokeLineCap.ROUND);
+            line.setStrokeLineJoin(StrokeLineJoin.ROUND);
+            lines[i] = line;
+            getChildren().add(line);
+        }
+        update();
+    }
+
+    /**
+     * Follow the CoPTrail: remove the samples it has dropped and add the new
+     * ones.<br>
+     * The CoPTrail always contains its last samples, so the number of samples
+     * added since the last update is enough to know which samples have been
+     * dropped.
+     */
+    public void update() {
+        int size = model.getSize();
+        long added = model.getCount() - count;
+        count = model.getCount();
+        int nbNew = (int)Math.min(added, size);
+        removeOldest(shown - (size - nbNew));
+        for (int i = size - nbNew; i < size; i++) {
+            addSample(model.getTime(i), ShoeView.shoeToViewX(model.getX(i), side), ShoeView.shoeToViewY(model.getY(i), side));
+        }
+    }
+
+    /**
+     * Add a sample at the end of the newest band, or of a new band if the
+     * newest one is full.
+     * @param time The time of the sample.
+     * @param x X coordinate of the sample in the view.
+     * @param y Y coordinate of the sample in the view.
+     */
+    private void addSample(double time, double x, double y) {
+        if (nbLines == 0) {
+            oldest = newest;
+            startBand(time);
+            updateOpacities();
+        }
+        else if (Math.abs(time - startTimes[newest]) >= bandDuration) {
+            if (nbLines == NB_LINES) {
+                removeOldest(nbSamples[oldest]);
+            }
+            newest = (newest + 1) % NB_LINES;
+            startBand(time);
+            if (nbLines > 1) {
+                lines[newest].getPoints().addAll(lastX, lastY);
+                joined[newest] = true;
+            }
+            updateOpacities();
+        }
+        lines[newest].getPoints().addAll(x, y);
+        nbSamples[newest]++;
+        shown++;
+        lastX = x;
+        lastY = y;
+    }
+
+    /**
+     * Start a new band in the Polyline of the newest band.
+     * @param time The time of the first sample of the band.
+     */
+    private void startBand(double time) {
+        lines[newest].getPoints().clear();
+        nbSamples[newest] = 0;
+        joined[newest] = false;
+        startTimes[newest] = time;
+        nbLines++;
+    }
+
+    /**
+     * Remove the oldest samples of the trail.
+     * @param n The number of samples.
+     */
+    private void removeOldest(int n) {
+        while (n > 0 && nbLines > 0) {
+            int removed = Math.min(n, nbSamples[oldest]);
+            ObservableList<Double> points = lines[oldest].getPoints();
+            // The first point of a joined band is the last one of the
+            // previous band, which has already been removed.
+            int nbPoints = removed + (joined[oldest] ? 1 : 0);
+            points.remove(0, Math.min(2 * nbPoints, points.size()));
+            joined[oldest] = false;
+            nbSamples[oldest] -= removed;
+            shown -= removed;
+            n -= removed;
+            if (nbSamples[oldest] == 0) {
+                points.clear();
+                nbLines--;
+                if (nbLines > 0) {
+                    oldest = (oldest + 1) % NB_LINES;
+                    if (joined[oldest]) {
+                        lines[oldest].getPoints().remove(0, 2);
+                        joined[oldest] = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the opacity of the bands: 1 for the newest one, decreasing with the
+     * age of the bands.
+     */
+    private void updateOpacities() {
+        for (int i = 0; i < NB_LINES; i++) {
+            int age = (newest - i + NB_LINES) % NB_LINES;
+            lines[i].setOpacity(1 - (double)age / NB_LINES);
+        }
+    }
+
+}
\ No newline at end of file
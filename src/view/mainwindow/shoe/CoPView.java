@@ -1,10 +1,12 @@
 package view.mainwindow.shoe;
 
 import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableIntegerValue;
 import javafx.beans.value.ObservableValue;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import model.CoP;
+import model.Shoe;
 
 
 /**
@@ -16,15 +18,20 @@ import model.CoP;
 public class CoPView extends Circle {
     
     private final CoP model;
+    private final ObservableIntegerValue frame;
+    private ChangeListener<Number> frameListener;
 
     /**
      * Create a new instance of CoPView.
      * @param model The model of the CoP.
+     * @param frame The frameProperty of the Shoe of the CoP.
      * @see CoPView
+     * @see Shoe#frameProperty()
      */
-    public CoPView(CoP model) {
+    public CoPView(CoP model, ObservableIntegerValue frame) {
         super(ShoeView.shoeToViewX(model.xProperty().getValue(), model.getSide()), ShoeView.shoeToViewY(model.yProperty().getValue(), model.getSide()), 4, Color.color(0, 0, 1));
         this.model = model;
+        this.frame = frame;
         initialize();
     }
     
@@ -38,31 +45,32 @@ public class CoPView extends Circle {
         // Set style
         setStroke(Color.BLACK);
         
-        // Bind position to model.
-        model.xProperty().addListener(new ChangeListener<Number>() {
+        // Bind position to model, once per frame (both coordinates are
+        // changed by the frame).
+        frameListener = new ChangeListener<Number>() {
             @Override
             public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-                if (newValue.doubleValue() == 1000) {
+                double x = model.xProperty().getValue();
+                double y = model.yProperty().getValue();
+                if (x == 1000 || y == 1000) {
                     setVisible(false);
                 }
                 else {
                     setVisible(true);
-                    setCenterX(ShoeView.shoeToViewX(newValue.doubleValue(), model.getSide()));
+                    setCenterX(ShoeView.shoeToViewX(x, model.getSide()));
+                    setCenterY(ShoeView.shoeToViewY(y, model.getSide()));
                 }
             }
-        });
-        model.yProperty().addListener(new ChangeListener<Number>() {
-            @Override
-            public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-                if (newValue.doubleValue() == 1000) {
-                    setVisible(false);
-                }
-                else {
-                    setVisible(true);
-                setCenterY(ShoeView.shoeToViewY(newValue.doubleValue(), model.getSide()));
-                }
-            }
-        });
+        };
+        frame.addListener(frameListener);
+    }
+    
+    /**
+     * Disconnect the CoPView from the frameProperty of the Shoe. Called when the
+     * ShoeView is cleared, because the model outlives the view.
+     */
+    public void dispose() {
+        frame.removeListener(frameListener);
     }
     
 }
\ No newline at end of file
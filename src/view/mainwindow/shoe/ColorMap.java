@@ -0,0 +1,141 @@
+package view.mainwindow.shoe;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import javafx.scene.paint.Color;
+import view.mainwindow.LegendView;
+
+
+/**
+ * Colors of the values of the sensors and of the motors.<br>
+ * The colors go from green (0) to yellow (max / 3), red (2 * max / 3) and
+ * black (max). They are computed once in a palette of SIZE colors, so finding
+ * the color of a value is only an index computation, without any allocation.
+ * <br>
+ * The maximum of the sensors (in mmHg) and of the motors (in %) are read in
+ * the setting file (ressources/colormap.txt). The same ColorMaps are used by
+ * the views and the LegendView, so the legend always matches the colors.
+ * @author Loïc David
+ * @see SensorView
+ * @see MotorView
+ * @see LegendView
+ */
+public class ColorMap {
+
+    /**
+     * Number of colors of a ColorMap.
+     */
+    public static final int SIZE = 256;
+    private static ColorMap sensorColorMap = new ColorMap(1800);
+    private static ColorMap motorColorMap = new ColorMap(1);
+    private final double max;
+    private final double scale;
+    private final Color[] colors = new Color[SIZE];
+
+    /**
+     * Create a new instance of ColorMap.
+     * @param max The value of the last color (black).
+     * @see ColorMap
+     */
+    public ColorMap(double max) {
+        this.max = max;
+        scale = (SIZE - 1) / max;
+        for (int i = 0; i < SIZE; i++) {
+            double red = 0;
+            double green = 0;
+            double v = 3.0 * i / (SIZE - 1);
+            if (v < 1) {
+                red = v;
+                green = 1;
+            }
+            else if (v < 2) {
+                red = 1;
+                green = 2 - v;
+            }
+            else {
+                red = 3 - v;
+            }
+            colors[i] = Color.color(red, green, 0);
+        }
+    }
+
+    /**
+     * Read the maximums of the ColorMaps of the sensors and of the motors in
+     * the setting file (ressources/colormap.txt).
+     * @throws IOException Issue to access the setting file.
+     * @throws NumberFormatException Issue to convert data from the setting
+     * file.
+     */
+    public static void load() throws IOException, NumberFormatException {
+        InputStream flux = new FileInputStream("././ressources/colormap.txt");
+        InputStreamReader input = new InputStreamReader(flux);
+        BufferedReader buff = new BufferedReader(input);
+        double sensorMax = Double.parseDouble(buff.readLine());
+        double motorMax = Double.parseDouble(buff.readLine()) / 100;
+        buff.close();
+        input.close();
+        flux.close();
+        if (!(sensorMax > 0) || !(motorMax > 0)) {
+            throw new NumberFormatException("Wrong color map settings");
+        }
+        sensorColorMap = new ColorMap(sensorMax);
+        motorColorMap = new ColorMap(motorMax);
+    }
+
+    /**
+     * Getter for the ColorMap of the pressures of the sensors (in mmHg).
+     * @return The ColorMap of the sensors.
+     */
+    public static ColorMap getSensorColorMap() {
+        return sensorColorMap;
+    }
+
+    /**
+     * Getter for the ColorMap of the values of the motors (between 0 and 1).
+     * @return The ColorMap of the motors.
+     */
+    public static ColorMap getMotorColorMap() {
+        return motorColorMap;
+    }
+
+    /**
+     * Getter for the index of the color of a value.
+     * @param value The value.
+     * @return The index (between 0 and SIZE - 1; the values out of the scale
+     * take the first or the last color).
+     */
+    public int getIndex(double value) {
+        int index = (int)(value * scale);
+        return index < 0 ? 0 : (index >= SIZE ? SIZE - 1 : index);
+    }
+
+    /**
+     * Getter for the color of a value.
+     * @param value The value.
+     * @return The color.
+     */
+    public Color getColor(double value) {
+        return colors[getIndex(value)];
+    }
+
+    /**
+     * Getter for a color of the palette.
+     * @param index The index of the color (between 0 and SIZE - 1).
+     * @return The color.
+     */
+    public Color getColorAt(int index) {
+        return colors[index];
+    }
+
+    /**
+     * Getter for the value of the last color.
+     * @return The maximum.
+     */
+    public double getMax() {
+        return max;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,238 @@
+package view.mainwindow.shoe;
+
+import java.io.File;
+import java.util.Arrays;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import model.Sensor;
+import model.Shoe;
+
+
+/**
+ * Map of the pressure under the whole shoe, interpolated from the pressures
+ * of the sensors.<br>
+ * The pressure of each point of the sole is a weighted mean of the pressures
+ * of the sensors, with weights inversely proportional to the square of the
+ * distance to the sensors (inverse distance weighting). The points are cells
+ * of 1 mm (CELL pixels of the ShoeView), and the sole is the region of the
+ * image of the shoe surrounded by its outline.<br>
+ * The weights only depend on the positions of the sensors: they are computed
+ * once, when the layer is created, so drawing a frame is only a weighted sum
+ * per cell, whose color is found in the ColorMap of the sensors and written
+ * in a reused WritableImage.
+ * @author Loïc David
+ * @see ShoeView
+ * @see ShoeCanvas
+ */
+public class HeatmapLayer {
+
+    /**
+     * Size of a cell of the map (in pixels of the ShoeView).
+     */
+    public static final int CELL = 2;
+    private static final int ALPHA = 0xC0;
+    private final Shoe model;
+    private final int width;
+    private final int height;
+    private final int nbSensors;
+    private final int[] cells;
+    private final float[] weights;
+    private final float[] sums;
+    private final double[] pressures;
+    private final int[] pixels;
+    private final WritableImage image;
+    private final ColorMap colorMap;
+    private final int[] palette;
+
+    /**
+     * Create a new instance of HeatmapLayer.<br>
+     * Find the cells of the sole and compute their weights.
+     * @param model The model of the shoe.
+     * @see HeatmapLayer
+     */
+    public HeatmapLayer(Shoe model) {
+        this.model = model;
+        colorMap = ColorMap.getSensorColorMap();
+        palette = createPalette(colorMap);
+        width = 262 / CELL;
+        height = 586 / CELL;
+        nbSensors = model.getSensors().size();
+        pressures = new double[nbSensors];
+        pixels = new int[width * height];
+        image = new WritableImage(width, height);
+        cells = findSole();
+        weights = new float[cells.length * nbSensors];
+        sums = new float[cells.length];
+        double[] sensorX = new double[nbSensors];
+        double[] sensorY = new double[nbSensors];
+        for (int j = 0; j < nbSensors; j++) {
+            Sensor sensor = model.getSensors().get(j);
+            sensorX[j] = sensor.getX();
+            sensorY[j] = sensor.getY();
+        }
+        for (int k = 0; k < cells.length; k++) {
+            double x = ShoeView.viewToShoeX((cells[k] % width + 0.5) * CELL, model.getSide());
+            double y = ShoeView.viewToShoeY((cells[k] / width + 0.5) * CELL, model.getSide());
+            double sum = 0;
+            for (int j = 0; j < nbSensors; j++) {
+                double dx = x - sensorX[j];
+                double dy = y - sensorY[j];
+                // A cell on a sensor takes (almost) its pressure.
+                double weight = 1 / Math.max(dx * dx + dy * dy, 0.25);
+                weights[j * cells.length + k] = (float)weight;
+                sum += weight;
+            }
+            for (int j = 0; j < nbSensors; j++) {
+                weights[j * cells.length + k] /= sum;
+            }
+        }
+    }
+
+    /**
+     * Create the colors of the map: the colors of a ColorMap, partially
+     * transparent (premultiplied ARGB).
+     * @param colorMap The ColorMap.
+     * @return The colors.
+     */
+    private static int[] createPalette(ColorMap colorMap) {
+        int[] palette = new int[ColorMap.SIZE];
+        for (int i = 0; i < ColorMap.SIZE; i++) {
+            Color color = colorMap.getColorAt(i);
+            int red = (int)Math.round(color.getRed() * ALPHA);
+            int green = (int)Math.round(color.getGreen() * ALPHA);
+            int blue = (int)Math.round(color.getBlue() * ALPHA);
+            palette[i] = ALPHA << 24 | red << 16 | green << 8 | blue;
+        }
+        return palette;
+    }
+
+    /**
+     * Find the cells of the sole: the cells which can't be reached from the
+     * border of the image of the shoe without crossing its outline (the
+     * opaque pixels of the image).
+     * @return The indexes of the cells (y * width + x).
+     */
+    private int[] findSole() {
+        String path = new File(".//.//ressources//" + model.getSide().toString() + "Shoe.png").toURI().toString();
+        Image shoeImage = new Image(path);
+        PixelReader reader = shoeImage.getPixelReader();
+        boolean[] blocked = new boolean[width * height];
+        if (reader != null) {
+            int imageWidth = (int)shoeImage.getWidth();
+            int imageHeight = (int)shoeImage.getHeight();
+            for (int y = 0; y < imageHeight && y / CELL < height; y++) {
+                for (int x = 0; x < imageWidth && x / CELL < width; x++) {
+                    if (reader.getArgb(x, y) >>> 24 >= 128) {
+                        blocked[(y / CELL) * width + x / CELL] = true;
+                    }
+                }
+            }
+        }
+        // Fill the outside from the border.
+        boolean[] outside = new boolean[width * height];
+        int[] queue = new int[width * height];
+        int end = 0;
+        for (int x = 0; x < width; x++) {
+            end = push(queue, end, outside, blocked, x);
+            end = push(queue, end, outside, blocked, (height - 1) * width + x);
+        }
+        for (int y = 0; y < height; y++) {
+            end = push(queue, end, outside, blocked, y * width);
+            end = push(queue, end, outside, blocked, y * width + width - 1);
+        }
+        for (int start = 0; start < end; start++) {
+            int cell = queue[start];
+            int x = cell % width;
+            if (x > 0) {
+                end = push(queue, end, outside, blocked, cell - 1);
+            }
+            if (x < width - 1) {
+                end = push(queue, end, outside, blocked, cell + 1);
+            }
+            if (cell >= width) {
+                end = push(queue, end, outside, blocked, cell - width);
+            }
+            if (cell < (height - 1) * width) {
+                end = push(queue, end, outside, blocked, cell + width);
+            }
+        }
+        // If the outline isn't closed, the whole image is used.
+        int nbCells = width * height - end;
+        if (nbCells == 0) {
+            outside = new boolean[width * height];
+            nbCells = width * height;
+        }
+        int[] sole = new int[nbCells];
+        int k = 0;
+        for (int cell = 0; cell < width * height; cell++) {
+            if (!outside[cell]) {
+                sole[k++] = cell;
+            }
+        }
+        return sole;
+    }
+
+    /**
+     * Add a cell to the queue of the outside cells, if it isn't already in
+     * it and isn't on the outline.
+     * @param queue The queue.
+     * @param end The end of the queue.
+     * @param outside The cells already in the queue.
+     * @param blocked The cells of the outline.
+     * @param cell The cell.
+     * @return The new end of the queue.
+     */
+    private static int push(int[] queue, int end, boolean[] outside, boolean[] blocked, int cell) {
+        if (outside[cell] || blocked[cell]) {
+            return end;
+        }
+        outside[cell] = true;
+        queue[end] = cell;
+        return end + 1;
+    }
+
+    /**
+     * Read the pressures of the sensors and draw the map.<br>
+     * Like with the SensorViews, the negative pressures are ignored.
+     */
+    public void update() {
+        int nbRead = Math.min(nbSensors, model.getSensors().size());
+        for (int j = 0; j < nbRead; j++) {
+            double pressure = model.getSensors().get(j).pressureProperty().getValue();
+            if (pressure >= 0) {
+                pressures[j] = pressure;
+            }
+        }
+        // The weights are stored sensor by sensor, so the sums of all the
+        // cells are computed together and the sensors without pressure are
+        // skipped.
+        Arrays.fill(sums, 0);
+        for (int j = 0; j < nbSensors; j++) {
+            float pressure = (float)pressures[j];
+            if (pressure != 0) {
+                int offset = j * cells.length;
+                for (int k = 0; k < cells.length; k++) {
+                    sums[k] += weights[offset + k] * pressure;
+                }
+            }
+        }
+        for (int k = 0; k < cells.length; k++) {
+            pixels[cells[k]] = palette[colorMap.getIndex(sums[k])];
+        }
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbPreInstance(), pixels, 0, width);
+    }
+
+    /**
+     * Getter for the image of the map.<br>
+     * The image is CELL times smaller than the ShoeView and is redrawn by
+     * each update.
+     * @return The image.
+     */
+    public WritableImage getImage() {
+        return image;
+    }
+
+}
\ No newline at end of file
@@ -14,6 +14,7 @@ public class MotorLabelView extends LabelView {
     
     private final int index;
     private final Motor motor;
+    private ChangeListener<Number> valueListener;
 
     /**
      * Create a new instance of MotorLabelView.
@@ -38,10 +39,22 @@ public class MotorLabelView extends LabelView {
         getLabel().setText("Motor" + index + "\nvalue: 0.0");
         
         // Bind the text to the motor's value.
-        motor.valueProperty().addListener(new ChangeListener<Number>() {
+        // The text is only updated while the label is displayed.
+        valueListener = new ChangeListener<Number>() {
             @Override
             public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-                getLabel().setText("Motor" + index + "\nvalue: " + Math.floor(1000 * newValue.doubleValue()) / 10);
+                if (isVisible()) {
+                    updateText();
+                }
+            }
+        };
+        motor.valueProperty().addListener(valueListener);
+        visibleProperty().addListener(new ChangeListener<Boolean>() {
+            @Override
+            public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) {
+                if (newValue) {
+                    updateText();
+                }
             }
         });
         
@@ -51,5 +64,20 @@ public class MotorLabelView extends LabelView {
         setVisible(false);
         
     }
-     
+    
+    /**
+     * Disconnect the MotorLabelView from the model of the motor. Called when the
+     * ShoeView is cleared, because the model outlives the view.
+     */
+    public void dispose() {
+        motor.valueProperty().removeListener(valueListener);
+    }
+    
+    /**
+     * Write the value of the motor in the label.
+     */
+    private void updateText() {
+        getLabel().setText("Motor" + index + "\nvalue: " + Math.floor(1000 * motor.valueProperty().getValue()) / 10);
+    }
+    
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ public class MotorView extends Circle {
     
     private final Motor model;
     private boolean labelVisible = false;
+    private ChangeListener<Number> valueListener;
 
     /**
      * Create a new instance of MotorView.
@@ -26,7 +27,7 @@ public class MotorView extends Circle {
      * @see MotorView
      */
     public MotorView(Motor model) {
-        super(ShoeView.shoeToViewX(model.getX(), model.getSide()), ShoeView.shoeToViewY(model.getY(), model.getSide()), 6, Color.color(0, 1, 0));
+        super(ShoeView.shoeToViewX(model.getX(), model.getSide()), ShoeView.shoeToViewY(model.getY(), model.getSide()), 6, ColorMap.getMotorColorMap().getColor(0));
         this.model = model;
         initialize();
     }
@@ -34,7 +35,7 @@ public class MotorView extends Circle {
     /**
      * Initialize the MotorView.<br>
      * Define the style of the MotorView and bind its color with the model's
-     * value.
+     * value (using the ColorMap of the motors).
      */
     private void initialize() {
         
@@ -42,29 +43,24 @@ public class MotorView extends Circle {
         setStroke(Color.BLACK);
         
         // Bind color to model.
-        model.valueProperty().addListener(new ChangeListener<Number>() {
+        valueListener = new ChangeListener<Number>() {
             @Override
             public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-                double red = 0;
-                double green = 0;
-                double v = newValue.doubleValue() * 3;
-                if (v < 1) {
-                    red = v;
-                    green = 1;
-                }
-                else if (v < 2) {
-                    red = 1;
-                    green = 2 - v;
-                }
-                else {
-                    red = 3 - v;
-                }
-                setFill(Color.color(red, green, 0));
+                setFill(ColorMap.getMotorColorMap().getColor(newValue.doubleValue()));
             }
-        });
+        };
+        model.valueProperty().addListener(valueListener);
         
     }
     
+    /**
+     * Disconnect the MotorView from the model of the motor. Called when the
+     * ShoeView is cleared, because the model outlives the view.
+     */
+    public void dispose() {
+        model.valueProperty().removeListener(valueListener);
+    }
+    
     /**
      * Set the label of this MotorView.<br>
      * Define all the interactions between the label and the MotorView.
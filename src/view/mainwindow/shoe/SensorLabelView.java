@@ -14,6 +14,7 @@ public class SensorLabelView extends LabelView {
     
     private final int index;
     private final Sensor sensor;
+    private ChangeListener<Number> pressureListener;
 
     /**
      * Create a new instance of SensorLabelView.
@@ -37,10 +38,22 @@ public class SensorLabelView extends LabelView {
         getLabel().setText("Sensor" + index + "\nvalue: 0\n");
         
         // Bind the text to the sensor's pressure value.
-        sensor.pressureProperty().addListener(new ChangeListener<Number>() {
+        // The text is only updated while the label is displayed.
+        pressureListener = new ChangeListener<Number>() {
             @Override
             public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-                getLabel().setText("Motor" + index + "\nvalue: " + newValue.intValue());
+                if (isVisible()) {
+                    updateText();
+                }
+            }
+        };
+        sensor.pressureProperty().addListener(pressureListener);
+        visibleProperty().addListener(new ChangeListener<Boolean>() {
+            @Override
+            public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) {
+                if (newValue) {
+                    updateText();
+                }
             }
         });
         
@@ -50,4 +63,19 @@ public class SensorLabelView extends LabelView {
         setVisible(false);
     }
     
+    /**
+     * Disconnect the SensorLabelView from the model of the sensor. Called when the
+     * ShoeView is cleared, because the model outlives the view.
+     */
+    public void dispose() {
+        sensor.pressureProperty().removeListener(pressureListener);
+    }
+    
+    /**
+     * Write the pressure of the sensor in the label.
+     */
+    private void updateText() {
+        getLabel().setText("Sensor" + index + "\nvalue: " + sensor.pressureProperty().getValue().intValue());
+    }
+    
 }
\ No newline at end of file
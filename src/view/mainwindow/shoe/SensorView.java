@@ -19,6 +19,7 @@ public class SensorView extends Circle {
     
     private final Sensor model;
     private boolean labelVisible = false;
+    private ChangeListener<Number> pressureListener;
 
     /**
      * Create a new instance of SensorView.
@@ -26,7 +27,7 @@ public class SensorView extends Circle {
      * @see SensorView
      */
     public SensorView(Sensor model) {
-        super(ShoeView.shoeToViewX(model.getX(), model.getSide()), ShoeView.shoeToViewY(model.getY(), model.getSide()), 3, Color.color(0, 1, 0));
+        super(ShoeView.shoeToViewX(model.getX(), model.getSide()), ShoeView.shoeToViewY(model.getY(), model.getSide()), 3, ColorMap.getSensorColorMap().getColor(0));
         this.model = model;
         initialize();
     }
@@ -34,7 +35,7 @@ public class SensorView extends Circle {
     /**
      * Initialize the SensorView.<br>
      * Define the style of the SensorView and bind its color with the model's
-     * value.
+     * value (using the ColorMap of the sensors).
      */
     private void initialize() {
         
@@ -42,28 +43,15 @@ public class SensorView extends Circle {
         setStroke(Color.BLACK);
         
         // Bind color to model.
-        model.pressureProperty().addListener(new ChangeListener<Number>() {
+        pressureListener = new ChangeListener<Number>() {
             @Override
             public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
                 if (newValue.doubleValue() >= 0) {
-                    double red = 0;
-                    double green = 0;
-                    double v = newValue.doubleValue() / 600;
-                    if (v < 1) {
-                        red = v;
-                        green = 1;
-                    }
-                    else if (v < 2) {
-                        red = 1;
-                        green = 2 - v;
-                    }
-                    else if (v < 3) {
-                        red = 3 - v;
-                    }
-                    setFill(Color.color(red, green, 0));
+                    setFill(ColorMap.getSensorColorMap().getColor(newValue.doubleValue()));
                 }
             }
-        });
+        };
+        model.pressureProperty().addListener(pressureListener);
         
     }
     
@@ -121,6 +109,14 @@ public class SensorView extends Circle {
         });
     }
     
+    /**
+     * Disconnect the SensorView from the model of the sensor. Called when the
+     * ShoeView is cleared, because the model outlives the view.
+     */
+    public void dispose() {
+        model.pressureProperty().removeListener(pressureListener);
+    }
+    
     /**
      * Getter for the model of the SensorView.
      * @return The model of the SensorView.
@@ -0,0 +1,456 @@
+package view.mainwindow.shoe;
+
+import java.io.File;
+import java.util.ArrayList;
+import javafx.animation.AnimationTimer;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.event.EventHandler;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.StrokeLineCap;
+import javafx.scene.shape.StrokeLineJoin;
+import model.CoPTrail;
+import model.LatencyHistogram;
+import model.Metrics;
+import model.Motor;
+import model.Sensor;
+import model.Shoe;
+import model.Shoe.Side;
+import view.mainwindow.ShoeSettingsView;
+
+
+/**
+ * Canvas drawing a whole shoe: the image of the shoe, the heatmap, the axis,
+ * the grid, the motors, the sensors, the trail of the CoP and the CoP.<br>
+ * It is an alternative to the nodes of the ShoeView (one Circle per sensor
+ * and per motor, one Line per line of the grid), for the high rates: at each
+ * frame of the Shoe, the values are only copied in arrays, and the canvas is
+ * drawn once per pulse if they have changed. The image, the axis and the grid
+ * are drawn once in a cached image, which is copied at each drawing.<br>
+ * The labels of the sensors and of the motors behave like with the nodes:
+ * they are displayed while the mouse is on their sensor or motor, or until
+ * the next click after a click.
+ * @author Loïc David
+ * @see ShoeView
+ */
+public class ShoeCanvas extends Canvas {
+
+    private static final double SENSOR_RADIUS = 3;
+    private static final double MOTOR_RADIUS = 6;
+    private static final double COP_RADIUS = 4;
+    private static final Color COP_COLOR = Color.color(0, 0, 1);
+    private final Shoe model;
+    private final ShoeSettingsView setting;
+    private final Image shoeImage;
+    private final HeatmapLayer heatmap;
+    private final double[] sensorX;
+    private final double[] sensorY;
+    private final double[] pressures;
+    private final boolean[] sensorSelected;
+    private final double[] motorX;
+    private final double[] motorY;
+    private final double[] motorValues;
+    private final boolean[] motorSelected;
+    private final ArrayList<SensorLabelView> sensorLabels = new ArrayList<>();
+    private final ArrayList<MotorLabelView> motorLabels = new ArrayList<>();
+    private double xCop;
+    private double yCop;
+    private int hoveredSensor = -1;
+    private int hoveredMotor = -1;
+    private WritableImage background;
+    private boolean dirty = true;
+    private final AnimationTimer timer;
+    private final ChangeListener<Number> frameListener;
+    private final InvalidationListener settingListener;
+    private final LatencyHistogram drawDuration;
+
+    /**
+     * Create a new instance of ShoeCanvas.
+     * @param model The model of the shoe.
+     * @param setting The ShoeSettingView of the ShoeView.
+     * @see ShoeCanvas
+     */
+    public ShoeCanvas(Shoe model, ShoeSettingsView setting) {
+        super(262, 586);
+        this.model = model;
+        this.setting = setting;
+        String path = new File(".//.//ressources//" + model.getSide().toString() + "Shoe.png").toURI().toString();
+        shoeImage = new Image(path);
+        heatmap = new HeatmapLayer(model);
+        int nbSensors = model.getSensors().size();
+        sensorX = new double[nbSensors];
+        sensorY = new double[nbSensors];
+        pressures = new double[nbSensors];
+        sensorSelected = new boolean[nbSensors];
+        for (int i = 0; i < nbSensors; i++) {
+            Sensor sensor = model.getSensors().get(i);
+            sensorX[i] = ShoeView.shoeToViewX(sensor.getX(), model.getSide());
+            sensorY[i] = ShoeView.shoeToViewY(sensor.getY(), model.getSide());
+        }
+        int nbMotors = model.getMotors().size();
+        motorX = new double[nbMotors];
+        motorY = new double[nbMotors];
+        motorValues = new double[nbMotors];
+        motorSelected = new boolean[nbMotors];
+        for (int i = 0; i < nbMotors; i++) {
+            Motor motor = model.getMotors().get(i);
+            motorX[i] = ShoeView.shoeToViewX(motor.getX(), model.getSide());
+            motorY[i] = ShoeView.shoeToViewY(motor.getY(), model.getSide());
+        }
+        drawDuration = Metrics.getInstance().histogram("display." + model.getSide().toString() + ".draw");
+
+        // Copy the values of each frame.
+        frameListener = new ChangeListener<Number>() {
+            @Override
+            public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
+                readFrame();
+            }
+        };
+        // Follow the checkBoxes of the ShoeSettingsView.
+        settingListener = new InvalidationListener() {
+            @Override
+            public void invalidated(Observable observable) {
+                renderBackground();
+                updateLabels();
+                dirty = true;
+            }
+        };
+        // Draw the canvas at the pulses, if needed.
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (dirty) {
+                    draw();
+                }
+            }
+        };
+        initialize();
+    }
+
+    /**
+     * Initialize the ShoeCanvas.<br>
+     * Read the current values, draw the background and connect the canvas
+     * to the Shoe, to the ShoeSettingsView and to the mouse.
+     */
+    private void initialize() {
+
+        readFrame();
+        renderBackground();
+        model.frameProperty().addListener(frameListener);
+        setting.getAxisCheckBox().selectedProperty().addListener(settingListener);
+        setting.getGridCheckBox().selectedProperty().addListener(settingListener);
+        setting.getSensorCheckBox().selectedProperty().addListener(settingListener);
+        setting.getMotorCheckBox().selectedProperty().addListener(settingListener);
+        setting.getHeatmapCheckBox().selectedProperty().addListener(settingListener);
+        setting.getTrailCheckBox().selectedProperty().addListener(settingListener);
+
+        // Display the label of the sensor or motor under the mouse.
+        addEventHandler(MouseEvent.MOUSE_MOVED, new EventHandler<MouseEvent>() {
+            @Override
+            public void handle(MouseEvent event) {
+                hover(event.getX(), event.getY());
+            }
+        });
+        // Hide it when the mouse exit, if it hasn't been selected.
+        addEventHandler(MouseEvent.MOUSE_EXITED, new EventHandler<MouseEvent>() {
+            @Override
+            public void handle(MouseEvent event) {
+                hoveredSensor = -1;
+                hoveredMotor = -1;
+                updateLabels();
+            }
+        });
+        // Select or unselect the sensor or motor on click.
+        addEventHandler(MouseEvent.MOUSE_CLICKED, new EventHandler<MouseEvent>() {
+            @Override
+            public void handle(MouseEvent event) {
+                hover(event.getX(), event.getY());
+                if (hoveredSensor >= 0) {
+                    sensorSelected[hoveredSensor] = !sensorSelected[hoveredSensor];
+                }
+                else if (hoveredMotor >= 0) {
+                    motorSelected[hoveredMotor] = !motorSelected[hoveredMotor];
+                }
+                updateLabels();
+                dirty = true;
+            }
+        });
+
+        timer.start();
+    }
+
+    /**
+     * Set the labels of the sensors and of the motors.<br>
+     * The labels are placed by the ShoeView above the canvas, in the order of
+     * the sensors and of the motors of the Shoe.
+     * @param sensorLabels The labels of the sensors.
+     * @param motorLabels The labels of the motors.
+     * @see SensorLabelView
+     * @see MotorLabelView
+     */
+    public void setLabelViews(ArrayList<SensorLabelView> sensorLabels, ArrayList<MotorLabelView> motorLabels) {
+        this.sensorLabels.clear();
+        this.sensorLabels.addAll(sensorLabels);
+        this.motorLabels.clear();
+        this.motorLabels.addAll(motorLabels);
+        updateLabels();
+    }
+
+    /**
+     * Disconnect the ShoeCanvas and its labels from the Shoe and from the
+     * ShoeSettingsView, and stop drawing it. Called when the ShoeView is
+     * cleared.
+     */
+    public void dispose() {
+        timer.stop();
+        model.frameProperty().removeListener(frameListener);
+        setting.getAxisCheckBox().selectedProperty().removeListener(settingListener);
+        setting.getGridCheckBox().selectedProperty().removeListener(settingListener);
+        setting.getSensorCheckBox().selectedProperty().removeListener(settingListener);
+        setting.getMotorCheckBox().selectedProperty().removeListener(settingListener);
+        setting.getHeatmapCheckBox().selectedProperty().removeListener(settingListener);
+        setting.getTrailCheckBox().selectedProperty().removeListener(settingListener);
+        for (SensorLabelView sensorLabel : sensorLabels) {
+            sensorLabel.dispose();
+        }
+        for (MotorLabelView motorLabel : motorLabels) {
+            motorLabel.dispose();
+        }
+    }
+
+    /**
+     * Copy the current values of the Shoe in the arrays of the canvas.<br>
+     * Like with the SensorViews, the negative pressures are ignored.
+     */
+    private void readFrame() {
+        int nbSensors = Math.min(pressures.length, model.getSensors().size());
+        for (int i = 0; i < nbSensors; i++) {
+            double pressure = model.getSensors().get(i).pressureProperty().getValue();
+            if (pressure >= 0) {
+                pressures[i] = pressure;
+            }
+        }
+        int nbMotors = Math.min(motorValues.length, model.getMotors().size());
+        for (int i = 0; i < nbMotors; i++) {
+            motorValues[i] = model.getMotors().get(i).valueProperty().getValue();
+        }
+        xCop = model.getCop().xProperty().getValue();
+        yCop = model.getCop().yProperty().getValue();
+        dirty = true;
+    }
+
+    /**
+     * Draw the image of the shoe, the axis and the grid in the cached
+     * background image.
+     */
+    private void renderBackground() {
+        Canvas layer = new Canvas(getWidth(), getHeight());
+        GraphicsContext gc = layer.getGraphicsContext2D();
+        gc.drawImage(shoeImage, 0, 0);
+        gc.setStroke(Color.BLACK);
+
+        // Axis.
+        if (setting.getAxisCheckBox().isSelected()) {
+            gc.setLineWidth(2);
+            gc.strokeLine(0, ShoeView.shoeToViewY(0, model.getSide()), 262, ShoeView.shoeToViewY(0, model.getSide()));
+            gc.strokeLine(ShoeView.shoeToViewX(0, model.getSide()), 0, ShoeView.shoeToViewX(0, model.getSide()), 586);
+        }
+
+        // Grid.
+        if (setting.getGridCheckBox().isSelected()) {
+            gc.setLineWidth(1);
+            for (int i = -21; i < 8; i++) {
+                gc.strokeLine(0, ShoeView.shoeToViewY(i * 10, model.getSide()), 262, ShoeView.shoeToViewY(i * 10, model.getSide()));
+            }
+            int start;
+            int end;
+            if (model.getSide().equals(Side.LEFT)) {
+                start = -9;
+                end = 4;
+            }
+            else {
+                start = -3;
+                end = 10;
+            }
+            for (int i = start; i < end; i++) {
+                gc.strokeLine(ShoeView.shoeToViewX(i * 10, model.getSide()), 0, ShoeView.shoeToViewX(i * 10, model.getSide()), 586);
+            }
+        }
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        background = layer.snapshot(parameters, background);
+    }
+
+    /**
+     * Draw the canvas: the heatmap, the background, then the motors, the
+     * sensors, the trail of the CoP and the CoP (in the order of the nodes of
+     * the ShoeView).
+     */
+    private void draw() {
+        long start = System.nanoTime();
+        dirty = false;
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.clearRect(0, 0, getWidth(), getHeight());
+
+        // Heatmap, under the background to keep the outline visible.
+        if (setting.getHeatmapCheckBox().isSelected()) {
+            heatmap.update();
+            gc.drawImage(heatmap.getImage(), 0, 0, getWidth(), getHeight());
+        }
+
+        gc.drawImage(background, 0, 0);
+        gc.setStroke(Color.BLACK);
+
+        // Motors.
+        if (setting.getMotorCheckBox().isSelected()) {
+            ColorMap colorMap = ColorMap.getMotorColorMap();
+            for (int i = 0; i < motorValues.length; i++) {
+                gc.setFill(colorMap.getColor(motorValues[i]));
+                drawCircle(gc, motorX[i], motorY[i], MOTOR_RADIUS, motorSelected[i] ? 2 : 1);
+            }
+        }
+
+        // Sensors.
+        if (setting.getSensorCheckBox().isSelected()) {
+            ColorMap colorMap = ColorMap.getSensorColorMap();
+            for (int i = 0; i < pressures.length; i++) {
+                gc.setFill(colorMap.getColor(pressures[i]));
+                drawCircle(gc, sensorX[i], sensorY[i], SENSOR_RADIUS, sensorSelected[i] ? 2 : 1);
+            }
+        }
+
+        // CoP trail.
+        if (setting.getTrailCheckBox().isSelected()) {
+            drawTrail(gc);
+        }
+
+        // CoP.
+        if (xCop != 1000 && yCop != 1000) {
+            gc.setFill(COP_COLOR);
+            drawCircle(gc, ShoeView.shoeToViewX(xCop, model.getSide()), ShoeView.shoeToViewY(yCop, model.getSide()), COP_RADIUS, 1);
+        }
+        drawDuration.recordSince(start);
+    }
+
+    /**
+     * Draw the trail of the CoP, read in the CoPTrail of the Shoe.<br>
+     * Like with the CoPTrailView, the opacity of the line decreases by
+     * bands of duration / NB_BANDS seconds: the segments of a band are drawn
+     * in one path.
+     * @param gc The GraphicsContext of the canvas.
+     * @see CoPTrailView
+     */
+    private void drawTrail(GraphicsContext gc) {
+        CoPTrail trail = model.getCopTrail();
+        int size = trail.getSize();
+        if (size < 2) {
+            return;
+        }
+        double bandDuration = trail.getDuration() / CoPTrailView.NB_BANDS;
+        double last = trail.getTime(size - 1);
+        gc.setStroke(COP_COLOR);
+        gc.setLineWidth(2);
+        gc.setLineCap(StrokeLineCap.ROUND);
+        gc.setLineJoin(StrokeLineJoin.ROUND);
+        int band = -1;
+        for (int i = 1; i < size; i++) {
+            int age = Math.min((int)(Math.abs(last - trail.getTime(i)) / bandDuration), CoPTrailView.NB_BANDS);
+            if (age != band) {
+                // Start the path of a new band at the end of the previous one.
+                if (band >= 0) {
+                    gc.stroke();
+                }
+                band = age;
+                gc.setGlobalAlpha(1 - (double)band / (CoPTrailView.NB_BANDS + 1));
+                gc.beginPath();
+                gc.moveTo(ShoeView.shoeToViewX(trail.getX(i - 1), model.getSide()), ShoeView.shoeToViewY(trail.getY(i - 1), model.getSide()));
+            }
+            gc.lineTo(ShoeView.shoeToViewX(trail.getX(i), model.getSide()), ShoeView.shoeToViewY(trail.getY(i), model.getSide()));
+        }
+        gc.stroke();
+        gc.setGlobalAlpha(1);
+        gc.setLineCap(StrokeLineCap.SQUARE);
+        gc.setLineJoin(StrokeLineJoin.MITER);
+        gc.setStroke(Color.BLACK);
+    }
+
+    /**
+     * Draw a circle with the current fill and a black border.
+     * @param gc The GraphicsContext of the canvas.
+     * @param x X coordinate of the centre.
+     * @param y Y coordinate of the centre.
+     * @param radius Radius of the circle.
+     * @param lineWidth Width of the border.
+     */
+    private static void drawCircle(GraphicsContext gc, double x, double y, double radius, double lineWidth) {
+        gc.fillOval(x - radius, y - radius, 2 * radius, 2 * radius);
+        gc.setLineWidth(lineWidth);
+        gc.strokeOval(x - radius, y - radius, 2 * radius, 2 * radius);
+    }
+
+    /**
+     * Find the sensor or the motor under the mouse and update the labels.
+     * The sensors are above the motors.
+     * @param x X coordinate of the mouse in the canvas.
+     * @param y Y coordinate of the mouse in the canvas.
+     */
+    private void hover(double x, double y) {
+        hoveredSensor = -1;
+        hoveredMotor = -1;
+        if (setting.getSensorCheckBox().isSelected()) {
+            hoveredSensor = find(sensorX, sensorY, SENSOR_RADIUS, x, y);
+        }
+        if (hoveredSensor < 0 && setting.getMotorCheckBox().isSelected()) {
+            hoveredMotor = find(motorX, motorY, MOTOR_RADIUS, x, y);
+        }
+        updateLabels();
+    }
+
+    /**
+     * Find the circle containing a point (the last drawn one if several
+     * circles contain it).
+     * @param centresX X coordinates of the centres of the circles.
+     * @param centresY Y coordinates of the centres of the circles.
+     * @param radius Radius of the circles (without the border).
+     * @param x X coordinate of the point.
+     * @param y Y coordinate of the point.
+     * @return The index of the circle, -1 if there is none.
+     */
+    private static int find(double[] centresX, double[] centresY, double radius, double x, double y) {
+        double limit = (radius + 1) * (radius + 1);
+        for (int i = centresX.length - 1; i >= 0; i--) {
+            double dx = x - centresX[i];
+            double dy = y - centresY[i];
+            if (dx * dx + dy * dy <= limit) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Display the labels of the sensors and motors which are under the mouse
+     * or selected, if the sensors or motors are displayed, and hide the
+     * others.
+     */
+    private void updateLabels() {
+        boolean sensorsVisible = setting.getSensorCheckBox().isSelected();
+        for (int i = 0; i < sensorLabels.size() && i < sensorSelected.length; i++) {
+            sensorLabels.get(i).setVisible(sensorsVisible && (sensorSelected[i] || hoveredSensor == i));
+        }
+        boolean motorsVisible = setting.getMotorCheckBox().isSelected();
+        for (int i = 0; i < motorLabels.size() && i < motorSelected.length; i++) {
+            motorLabels.get(i).setVisible(motorsVisible && (motorSelected[i] || hoveredMotor == i));
+        }
+    }
+
+}
\ No newline at end of file
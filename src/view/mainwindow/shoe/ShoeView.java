@@ -24,12 +24,16 @@ import view.mainwindow.ShoeSettingsView;
 /**
  * View of a shoe.<br>
  * This view is a representation of a shoe model, it contains all the SensorView
- * and MotorsView, the CoPView, an image of the shoe, a grid and the axis.
+ * and MotorsView, the CoPView and the trail of the CoP, an image of the shoe,
+ * a heatmap of the pressure, a grid and the axis. For
+ * the high rates, they can be replaced by a ShoeCanvas drawing all of them.
  * @author Loïc David
  * @see Shoe
  * @see SensorView
  * @see MotorView
  * @see CoPView
+ * @see CoPTrailView
+ * @see ShoeCanvas
  */
 public class ShoeView extends Pane {
     
@@ -39,9 +43,16 @@ public class ShoeView extends Pane {
     private final DoubleProperty yCursor = new SimpleDoubleProperty(0);
     private final ArrayList<MotorView> motors = new ArrayList<>();
     private final ArrayList<SensorView> sensors = new ArrayList<>();
+    private final ArrayList<MotorLabelView> motorLabels = new ArrayList<>();
+    private final ArrayList<SensorLabelView> sensorLabels = new ArrayList<>();
+    private CoPView copView;
     private EventHandler<MouseEvent> cursorPosHandler;
     private EventHandler<MouseEvent> cursorInHandler;
     private EventHandler<MouseEvent> cursorOutHandler;
+    private boolean canvasRendering = false;
+    private ShoeCanvas shoeCanvas;
+    private ChangeListener<Number> heatmapListener;
+    private ChangeListener<Number> trailListener;
     
     /**
      * Create a new instance of ShoeView.
@@ -72,11 +83,84 @@ public class ShoeView extends Pane {
         setStyle("-fx-border-width: 1 0 1 0;-fx-border-color: black");
         setMaxSize(262, 586);
         
+        // Shoe, drawn by nodes or by a ShoeCanvas.
+        if (canvasRendering) {
+            initializeCanvas();
+        }
+        else {
+            initializeNodes();
+        }
+        
+        // Cursor position.
+        cursorPosHandler = new EventHandler<MouseEvent>() {
+            @Override
+            public void handle(MouseEvent event) {
+                xCursor.setValue(viewToShoeX(event.getX(), model.getSide()));
+                yCursor.setValue(viewToShoeY(event.getY(), model.getSide()));
+            }
+        };
+        addEventHandler(MouseEvent.MOUSE_MOVED, cursorPosHandler);
+        addEventHandler(MouseEvent.MOUSE_DRAGGED, cursorPosHandler);
+        
+        // Cursor type.
+        cursorInHandler = new EventHandler<MouseEvent>() {
+            @Override
+            public void handle(MouseEvent event) {
+                setCursor(Cursor.CROSSHAIR);
+            }
+        };
+        addEventHandler(MouseEvent.MOUSE_ENTERED, cursorInHandler);
+        cursorOutHandler = new EventHandler<MouseEvent>() {
+            @Override
+            public void handle(MouseEvent event) {
+                setCursor(Cursor.DEFAULT);
+            }
+        };
+        addEventHandler(MouseEvent.MOUSE_EXITED, cursorOutHandler);
+        
+    }
+    
+    /**
+     * Create the nodes of the ShoeView: the image of the shoe, the heatmap,
+     * the axis, the grid, the MotorViews, the SensorViews, the trail of the
+     * CoP, the CoPView and their labels.
+     */
+    private void initializeNodes() {
+        
         // Shoe image.
         String path = new File(".//.//ressources//" + model.getSide().toString() + "Shoe.png").toURI().toString();
         Image shoeImage = new Image(path);
         ImageView shoeImageView = new ImageView(shoeImage);
-        getChildren().add(shoeImageView);
+        
+        // Heatmap.
+        // Under the image of the shoe, so the outline stays visible. It is
+        // only drawn while it is displayed, once per frame.
+        HeatmapLayer heatmap = new HeatmapLayer(model);
+        ImageView heatmapView = new ImageView(heatmap.getImage());
+        heatmapView.setFitWidth(262);
+        heatmapView.setFitHeight(586);
+        heatmapView.visibleProperty().bind(setting.getHeatmapCheckBox().selectedProperty());
+        heatmapView.visibleProperty().addListener(new ChangeListener<Boolean>() {
+            @Override
+            public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) {
+                if (newValue) {
+                    heatmap.update();
+                }
+            }
+        });
+        heatmapListener = new ChangeListener<Number>() {
+            @Override
+            public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
+                if (heatmapView.isVisible()) {
+                    heatmap.update();
+                }
+            }
+        };
+        model.frameProperty().addListener(heatmapListener);
+        if (heatmapView.isVisible()) {
+            heatmap.update();
+        }
+        getChildren().addAll(heatmapView, shoeImageView);
         
         // Axis.
         // The lines are created and bind to their checkBox in the ShoeSettingsView.
@@ -129,9 +213,33 @@ public class ShoeView extends Pane {
             getChildren().add(sensorView);
         }
         
+        // CoP trail.
+        // Under the CoP. Like the heatmap, it only follows the CoPTrail while
+        // it is displayed.
+        CoPTrailView trailView = new CoPTrailView(model.getCopTrail(), model.getSide());
+        trailView.visibleProperty().bind(setting.getTrailCheckBox().selectedProperty());
+        trailView.visibleProperty().addListener(new ChangeListener<Boolean>() {
+            @Override
+            public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) {
+                if (newValue) {
+                    trailView.update();
+                }
+            }
+        });
+        trailListener = new ChangeListener<Number>() {
+            @Override
+            public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
+                if (trailView.isVisible()) {
+                    trailView.update();
+                }
+            }
+        };
+        model.frameProperty().addListener(trailListener);
+        getChildren().add(trailView);
+        
         // CoP.
         CoP cop = model.getCop();
-        CoPView copView = new CoPView(cop);
+        copView = new CoPView(cop, model.frameProperty());
         getChildren().add(copView);
         
         // Motors' labels.
@@ -140,6 +248,7 @@ public class ShoeView extends Pane {
         int i = 0;
         for (Motor motor : model.getMotors()) {
             MotorLabelView motorLabel = new MotorLabelView(i + 1, motor);
+            motorLabels.add(motorLabel);
             motors.get(i).setLabelView(motorLabel);
             getChildren().add(motorLabel);
             i++;
@@ -151,47 +260,84 @@ public class ShoeView extends Pane {
         i = 0;
         for (Sensor sensor : model.getSensors()) {
             SensorLabelView sensorLabel = new SensorLabelView(i + 1, sensor);
+            sensorLabels.add(sensorLabel);
             sensors.get(i).setLabelView(sensorLabel);
             getChildren().add(sensorLabel);
             i++;
         }
+    }
+    
+    /**
+     * Create the ShoeCanvas drawing the shoe and the labels of its sensors
+     * and motors.
+     * @see ShoeCanvas
+     */
+    private void initializeCanvas() {
         
-        // Cursor position.
-        cursorPosHandler = new EventHandler<MouseEvent>() {
-            @Override
-            public void handle(MouseEvent event) {
-                xCursor.setValue(viewToShoeX(event.getX(), model.getSide()));
-                yCursor.setValue(viewToShoeY(event.getY(), model.getSide()));
-            }
-        };
-        addEventHandler(MouseEvent.MOUSE_MOVED, cursorPosHandler);
-        addEventHandler(MouseEvent.MOUSE_DRAGGED, cursorPosHandler);
-        
-        // Cursor type.
-        cursorInHandler = new EventHandler<MouseEvent>() {
-            @Override
-            public void handle(MouseEvent event) {
-                setCursor(Cursor.CROSSHAIR);
-            }
-        };
-        addEventHandler(MouseEvent.MOUSE_ENTERED, cursorInHandler);
-        cursorOutHandler = new EventHandler<MouseEvent>() {
-            @Override
-            public void handle(MouseEvent event) {
-                setCursor(Cursor.DEFAULT);
-            }
-        };
-        addEventHandler(MouseEvent.MOUSE_EXITED, cursorOutHandler);
+        // Canvas.
+        shoeCanvas = new ShoeCanvas(model, setting);
+        getChildren().add(shoeCanvas);
         
+        // Labels.
+        // Created after the canvas, to be above it.
+        ArrayList<MotorLabelView> motorLabels = new ArrayList<>();
+        int i = 0;
+        for (Motor motor : model.getMotors()) {
+            MotorLabelView motorLabel = new MotorLabelView(i + 1, motor);
+            motorLabels.add(motorLabel);
+            getChildren().add(motorLabel);
+            i++;
+        }
+        ArrayList<SensorLabelView> sensorLabels = new ArrayList<>();
+        i = 0;
+        for (Sensor sensor : model.getSensors()) {
+            SensorLabelView sensorLabel = new SensorLabelView(i + 1, sensor);
+            sensorLabels.add(sensorLabel);
+            getChildren().add(sensorLabel);
+            i++;
+        }
+        shoeCanvas.setLabelViews(sensorLabels, motorLabels);
     }
     
     /**
      * Clear all the components of the ShoeView.
      */
     private void reset() {
+        if (heatmapListener != null) {
+            model.frameProperty().removeListener(heatmapListener);
+            heatmapListener = null;
+        }
+        if (trailListener != null) {
+            model.frameProperty().removeListener(trailListener);
+            trailListener = null;
+        }
+        if (shoeCanvas != null) {
+            shoeCanvas.dispose();
+            shoeCanvas = null;
+        }
+        // The models outlive the views, so the views have to remove their
+        // listeners.
+        for (MotorView motor : motors) {
+            motor.dispose();
+        }
+        for (SensorView sensor : sensors) {
+            sensor.dispose();
+        }
+        for (MotorLabelView motorLabel : motorLabels) {
+            motorLabel.dispose();
+        }
+        for (SensorLabelView sensorLabel : sensorLabels) {
+            sensorLabel.dispose();
+        }
+        if (copView != null) {
+            copView.dispose();
+            copView = null;
+        }
         getChildren().clear();
         motors.clear();
         sensors.clear();
+        motorLabels.clear();
+        sensorLabels.clear();
         removeEventHandler(MouseEvent.MOUSE_MOVED, cursorPosHandler);
         removeEventHandler(MouseEvent.MOUSE_ENTERED, cursorInHandler);
         removeEventHandler(MouseEvent.MOUSE_EXITED, cursorOutHandler);
@@ -205,6 +351,28 @@ public class ShoeView extends Pane {
         initialize();
     }
     
+    /**
+     * Choose how the shoe is drawn: by nodes (one per sensor, motor, line...)
+     * or by a ShoeCanvas, faster at high rates. The ShoeView is rebuilt if
+     * the choice changes.
+     * @param canvasRendering true to draw the shoe with a ShoeCanvas.
+     * @see ShoeCanvas
+     */
+    public void setCanvasRendering(boolean canvasRendering) {
+        if (this.canvasRendering != canvasRendering) {
+            this.canvasRendering = canvasRendering;
+            update();
+        }
+    }
+    
+    /**
+     * Getter for the way the shoe is drawn.
+     * @return true if the shoe is drawn with a ShoeCanvas.
+     */
+    public boolean isCanvasRendering() {
+        return canvasRendering;
+    }
+    
     /**
      * Translation from the shoe coordinates system to the view coordinates
      * system for X.
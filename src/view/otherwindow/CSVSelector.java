@@ -95,6 +95,8 @@ public class CSVSelector extends Stage {
                 fileChooser.setTitle("Select left CSV file");
                 fileChooser.getExtensionFilters().addAll(
                         new ExtensionFilter("CSV Files", "*.csv"),
+                        new ExtensionFilter("Binary Recordings", "*.vsb"),
+                        new ExtensionFilter("Compressed Recordings", "*.vsz"),
                         new ExtensionFilter("All Files", "*.*"));
                 File selectedFile = fileChooser.showOpenDialog(new Stage());
                 leftTextField.setText(selectedFile.toPath().toString());
@@ -108,6 +110,8 @@ public class CSVSelector extends Stage {
                 fileChooser.setTitle("Select right CSV file");
                 fileChooser.getExtensionFilters().addAll(
                         new ExtensionFilter("CSV Files", "*.csv"),
+                        new ExtensionFilter("Binary Recordings", "*.vsb"),
+                        new ExtensionFilter("Compressed Recordings", "*.vsz"),
                         new ExtensionFilter("All Files", "*.*"));
                 File selectedFile = fileChooser.showOpenDialog(new Stage());
                 rightTextField.setText(selectedFile.toPath().toString());
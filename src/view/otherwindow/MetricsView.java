@@ -0,0 +1,138 @@
+package view.otherwindow;
+
+import java.io.File;
+import java.io.IOException;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.TextArea;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import model.Metrics;
+
+
+/**
+ * Window displaying the Metrics of the software.<br>
+ * The values are refreshed every REFRESH_INTERVAL milliseconds while the
+ * window is shown. They can be reset and exported in a CSV file.
+ * @author Loïc David
+ * @see Metrics
+ */
+public class MetricsView extends Stage {
+
+    /**
+     * Time between two refreshes of the values (in milliseconds).
+     */
+    public static final double REFRESH_INTERVAL = 500;
+    private final TextArea textArea = new TextArea();
+    private final Timeline timeline = new Timeline();
+
+    /**
+     * Create a new instance of MetricsView.
+     */
+    public MetricsView() {
+        initialize();
+    }
+
+    /**
+     * Initialize the MetricsView.<br>
+     */
+    private void initialize() {
+
+        // Create box.
+        VBox vBox = new VBox(10);
+        vBox.setPadding(new Insets(10, 10, 10, 10));
+        HBox hBox = new HBox(5);
+        hBox.setAlignment(Pos.CENTER_RIGHT);
+
+        // Create components.
+        textArea.setEditable(false);
+        textArea.setFont(Font.font("Monospaced", 12));
+        textArea.setPrefColumnCount(90);
+        textArea.setPrefRowCount(40);
+        Button resetButton = new Button("Reset");
+        Button exportButton = new Button("Export...");
+        Button closeButton = new Button("Close");
+
+        // Connect components to methods.
+        // Refresh the values.
+        timeline.getKeyFrames().add(new KeyFrame(Duration.millis(REFRESH_INTERVAL), new EventHandler<ActionEvent>() {
+            @Override
+            public void handle(ActionEvent event) {
+                refresh();
+            }
+        }));
+        timeline.setCycleCount(Animation.INDEFINITE);
+        // Set the values to 0.
+        resetButton.addEventHandler(MouseEvent.MOUSE_CLICKED, new EventHandler<MouseEvent>() {
+            @Override
+            public void handle(MouseEvent event) {
+                Metrics.getInstance().reset();
+                refresh();
+            }
+        });
+        // Open a file chooser to export the values.
+        exportButton.addEventHandler(MouseEvent.MOUSE_CLICKED, new EventHandler<MouseEvent>() {
+            @Override
+            public void handle(MouseEvent event) {
+                FileChooser fileChooser = new FileChooser();
+                fileChooser.setTitle("Export metrics");
+                fileChooser.getExtensionFilters().addAll(
+                        new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+                        new FileChooser.ExtensionFilter("All Files", "*.*"));
+                File selectedFile = fileChooser.showSaveDialog(new Stage());
+                if (selectedFile != null) {
+                    try {
+                        Metrics.getInstance().export(selectedFile.getPath());
+                    } catch (IOException ex) {
+                        (new ErrorWindow("Error exporting metrics!")).show();
+                    }
+                }
+            }
+        });
+        // Close the window.
+        closeButton.addEventHandler(MouseEvent.MOUSE_CLICKED, new EventHandler<MouseEvent>() {
+            @Override
+            public void handle(MouseEvent event) {
+                hide();
+            }
+        });
+        setOnShown(event -> {
+            refresh();
+            timeline.play();
+        });
+        setOnHidden(event -> timeline.stop());
+
+        // Add components to box.
+        hBox.getChildren().addAll(resetButton, exportButton, closeButton);
+        vBox.getChildren().addAll(textArea, hBox);
+
+        // Initialize window.
+        Scene scene = new Scene(vBox);
+        setTitle("Metrics");
+        sizeToScene();
+        setScene(scene);
+
+    }
+
+    /**
+     * Display the current values of the Metrics.
+     */
+    private void refresh() {
+        double scrollTop = textArea.getScrollTop();
+        textArea.setText(Metrics.getInstance().report());
+        textArea.setScrollTop(scrollTop);
+    }
+
+}
\ No newline at end of file
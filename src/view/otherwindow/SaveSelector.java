@@ -51,11 +51,11 @@ public class SaveSelector extends Stage {
         hBox3.setPadding(new Insets(0, 0, 0, 50));
         
         // Create components.
-        Label leftLabel = new Label("save file for left shoe (.csv):");
+        Label leftLabel = new Label("save file for left shoe (.csv, .vsb or .vsz):");
         TextField leftTextField = new TextField();
         leftTextField.setMinWidth(300);
         leftTextField.setMaxWidth(300);
-        Label rightLabel = new Label("save file for right shoe (.csv):");
+        Label rightLabel = new Label("save file for right shoe (.csv, .vsb or .vsz):");
         TextField rightTextField = new TextField();
         rightTextField.setMinWidth(300);
         rightTextField.setMaxWidth(300);
@@ -92,6 +92,8 @@ public class SaveSelector extends Stage {
                 fileChooser.setTitle("Select left save file");
                 fileChooser.getExtensionFilters().addAll(
                         new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+                        new FileChooser.ExtensionFilter("Binary Recordings", "*.vsb"),
+                        new FileChooser.ExtensionFilter("Compressed Recordings", "*.vsz"),
                         new FileChooser.ExtensionFilter("All Files", "*.*"));
                 File selectedFile = fileChooser.showSaveDialog(new Stage());
                 leftTextField.setText(selectedFile.toPath().toString());
@@ -105,6 +107,8 @@ public class SaveSelector extends Stage {
                 fileChooser.setTitle("Select right save file");
                 fileChooser.getExtensionFilters().addAll(
                         new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+                        new FileChooser.ExtensionFilter("Binary Recordings", "*.vsb"),
+                        new FileChooser.ExtensionFilter("Compressed Recordings", "*.vsz"),
                         new FileChooser.ExtensionFilter("All Files", "*.*"));
                 File selectedFile = fileChooser.showSaveDialog(new Stage());
                 rightTextField.setText(selectedFile.toPath().toString());